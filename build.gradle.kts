@@ -2,6 +2,7 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.5.7"
 	id("io.spring.dependency-management") version "1.1.7"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.lms"
@@ -48,10 +49,14 @@ dependencies {
 	implementation("org.springframework.cloud:spring-cloud-stream-binder-kafka")
 	implementation("org.springframework.cloud:spring-cloud-stream-binder-kafka-streams")
 	implementation("org.springframework.kafka:spring-kafka")
+	implementation("org.lz4:lz4-java:1.8.0")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("org.apache.avro:avro:1.12.0")
+	implementation("commons-codec:commons-codec")
+	implementation("org.postgresql:postgresql")
 	compileOnly("org.projectlombok:lombok")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	developmentOnly("org.springframework.boot:spring-boot-docker-compose")
-	runtimeOnly("org.postgresql:postgresql")
 	annotationProcessor("org.springframework.boot:spring-boot-configuration-processor")
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
@@ -74,6 +79,12 @@ dependencyManagement {
 	}
 }
 
+jmh {
+	// ./gradlew jmh -PjmhIncludes=RequestHasherBenchmark
+	includes = listOf((findProperty("jmhIncludes") as String?) ?: ".*")
+	profilers = listOf("gc")
+}
+
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
@@ -2,6 +2,8 @@ package com.lms.party360.api.controller;
 
 import com.lms.party360.api.model.request.CreatePersonRequest;
 import com.lms.party360.api.model.response.CreatePartyResponse;
+import com.lms.party360.app.command.BulkCreatePersonHandler;
+import com.lms.party360.app.command.CommandExecutor;
 import com.lms.party360.app.command.CreateBusinessHandler;
 import com.lms.party360.app.command.CreatePersonHandler;
 import com.lms.party360.app.command.RequestScreeningHandler;
@@ -11,6 +13,7 @@ import com.lms.party360.app.query.GetPiiQuery;
 import com.lms.party360.app.query.SearchPartyQuery;
 import com.lms.party360.domain.policy.PolicyEnforcer;
 import com.lms.party360.util.Headers;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
@@ -20,12 +23,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.validation.annotation.Validated;
 import com.lms.party360.exception.Problem;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping(path = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -35,6 +44,7 @@ import java.util.UUID;
 public class PartyController {
 
     private final CreatePersonHandler createPersonHandler;
+    private final BulkCreatePersonHandler bulkCreatePersonHandler;
     private final CreateBusinessHandler createBusinessHandler;
     private final UpdatePartyHandler updatePartyHandler;
     private final RequestScreeningHandler requestScreeningHandler;
@@ -44,6 +54,7 @@ public class PartyController {
     private final GetPiiQuery getPiiQuery;
 
     private final PolicyEnforcer policyEnforcer;
+    private final CommandExecutor commandExecutor;
 
     @PostMapping(path = "/party/people", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<CreatePartyResponse> createPerson(
@@ -55,7 +66,8 @@ public class PartyController {
         policyEnforcer.allow(auth, "CREATE", resourceFromTenant(request.tenant()));
 
         UUID idem = parseIdempotencyKey(idempotencyKey);
-        CreatePartyResponse createPartyResponse = createPersonHandler.handle(idem, request, auth);
+        CreatePartyResponse createPartyResponse = commandExecutor.run("create-person",
+                () -> createPersonHandler.handle(idem, request, auth));
 
         HttpStatus status = "QUEUED".equals(createPartyResponse.screeningStatus()) ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
 
@@ -66,6 +78,39 @@ public class PartyController {
         return new ResponseEntity<>(createPartyResponse, headers, status);
     }
 
+    /**
+     * Bulk import: NDJSON of {@code {"ref":..., "person":{CreatePersonRequest}}} in, one NDJSON result per
+     * line out, flushed per committed chunk. Re-submitting is safe (already imported people come back DUPLICATE).
+     */
+    @PostMapping(path = "/party/people:batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createPeopleBatch(
+            @RequestParam @NotBlank String tenant,
+            @RequestParam(defaultValue = "" + BulkCreatePersonHandler.DEFAULT_CHUNK) int chunkSize,
+            @RequestHeader(name = "X-Correlation-Id", required = false) String correlationId,
+            HttpServletRequest httpRequest,
+            Authentication auth
+    ) throws IOException, InterruptedException {
+        policyEnforcer.allow(auth, "CREATE", resourceFromTenant(tenant));
+
+        String corrId = correlationId == null ? UUID.randomUUID().toString() : correlationId;
+        var in = httpRequest.getInputStream();
+        // Heaviest DB path: take the blocking-work permit before committing to a 200 so shedding is a clean
+        // 503, and hold it until the stream is done (or times out, fails, or never starts).
+        CommandExecutor.Permit permit = commandExecutor.acquire("create-people-batch");
+        releaseWhenAsyncEnds(httpRequest, permit);
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                bulkCreatePersonHandler.handle(in, out, tenant, auth.getName(), corrId, chunkSize);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping(path = "/party/business", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<CreatePartyResponse> createBusiness(
             @RequestHeader(name = Headers.IDEMPOTENCY_KEY) @NotBlank String idempotencyKey,
@@ -75,7 +120,8 @@ public class PartyController {
         policyEnforcer.allow(auth, "CREATE", resourceFromTenant(request.getTenant()));
 
         UUID idem = parseIdempotencyKey(idempotencyKey);
-        CreatePartyResponse resp = createBusinessHandler.handle(idem, request, auth);
+        CreatePartyResponse resp = commandExecutor.run("create-business",
+                () -> createBusinessHandler.handle(idem, request, auth));
 
         HttpStatus status = "QUEUED".equals(resp.screeningStatus()) ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
 
@@ -86,6 +132,29 @@ public class PartyController {
         return new ResponseEntity<>(resp, headers, status);
     }
 
+    /** The body may never run (timeout, client gone, dispatch error): release the permit on every async outcome. */
+    private static void releaseWhenAsyncEnds(HttpServletRequest request, CommandExecutor.Permit permit) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor("command-permit",
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> Object handleTimeout(NativeWebRequest webRequest, Callable<T> task) {
+                        permit.close();
+                        return RESULT_NONE;
+                    }
+
+                    @Override
+                    public <T> Object handleError(NativeWebRequest webRequest, Callable<T> task, Throwable t) {
+                        permit.close();
+                        return RESULT_NONE;
+                    }
+
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        permit.close();
+                    }
+                });
+    }
+
     private static UUID parseIdempotencyKey(String header) throws Throwable {
         try {
             return UUID.fromString(header);
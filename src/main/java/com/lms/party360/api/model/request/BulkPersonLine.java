@@ -0,0 +1,10 @@
+package com.lms.party360.api.model.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/** One NDJSON line of a bulk import: caller's reference (echoed back) + the person to create. */
+public record BulkPersonLine(
+        String ref,                     // e.g., legacy system id; optional
+        @Valid @NotNull CreatePersonRequest person
+) {}
@@ -0,0 +1,12 @@
+package com.lms.party360.api.model.response;
+
+import jakarta.validation.constraints.NotBlank;
+
+/** One NDJSON result line per input line, streamed back as each chunk commits. */
+public record BulkItemResult(
+        long line,                      // 1-based input line number
+        String ref,                     // echoed from the input line
+        @NotBlank String status,        // CREATED/DUPLICATE/REJECTED
+        String partyId,                 // new party, or the existing one for DUPLICATE
+        String errorCode                // set for REJECTED
+) {}
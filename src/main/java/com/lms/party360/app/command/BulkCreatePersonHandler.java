@@ -0,0 +1,262 @@
+package com.lms.party360.app.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lms.party360.api.model.request.BulkPersonLine;
+import com.lms.party360.api.model.request.CreatePersonRequest;
+import com.lms.party360.api.model.response.BulkItemResult;
+import com.lms.party360.domain.service.ScreeningService;
+import com.lms.party360.events.publisher.EventPayloadFactory;
+import com.lms.party360.events.publisher.OutboxWriter;
+import com.lms.party360.integration.tokenizer.TokenizationClient;
+import com.lms.party360.repo.PartyBulkRepository;
+import com.lms.party360.repo.PartyBulkRepository.PersonKey;
+import com.lms.party360.repo.PartyBulkRepository.PersonRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk person import (NDJSON in, NDJSON out) for onboarding migrations.
+ *
+ * Per chunk: validate, tokenize all SSNs via Vault batch_input, one set-based dedupe query, then a single transaction with
+ * JDBC batch inserts, one outbox batch and the KYC/OFAC screening requests for every created party. Results are
+ * flushed per chunk, so the client sees progress and can resume from the last acknowledged line.
+ *
+ * Idempotency is per item and natural: re-submitting an already imported person yields DUPLICATE with the
+ * existing partyId (same (ssnToken, dob) rule as the single create), so no Redis record per line is needed.
+ * Addresses and contacts are stored as supplied (migration sources are expected to be pre-standardized), but
+ * each one is validated per line, so a bad entry rejects that line instead of failing the chunk's insert.
+ * Screening is always queued (as an async single create would), never run inline; OFAC only for lines the local
+ * list did not clear (ScreeningService#screenOfac).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkCreatePersonHandler {
+
+    public static final int DEFAULT_CHUNK = 500;
+    public static final int MAX_CHUNK     = 5_000;
+
+    private static final String MTR_BULK_ITEMS = "party.create.person.bulk.items";
+
+    private final TokenizationClient tokenizer;
+    private final PartyBulkRepository bulkRepo;
+    private final OutboxWriter outbox;
+    private final EventPayloadFactory payloads;
+    private final ScreeningOrchestrator screening;
+    private final ScreeningService localScreening;
+    private final Validator validator;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final TenantClock clock;
+    private final MeterRegistry metrics;
+
+    public void handle(InputStream ndjson, OutputStream results,
+                       String tenant, String actorId, String corrId, int chunkSize) throws Exception {
+        int chunk = Math.min(Math.max(1, chunkSize), MAX_CHUNK);
+        ObjectWriter writer = objectMapper.writerFor(BulkItemResult.class);
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            List<Item> pending = new ArrayList<>(chunk);
+            long lineNo = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                pending.add(parse(lineNo, line, tenant));
+                if (pending.size() == chunk) {
+                    emit(processChunk(pending, tenant, actorId, corrId), writer, results);
+                    pending = new ArrayList<>(chunk);
+                }
+            }
+            if (!pending.isEmpty()) emit(processChunk(pending, tenant, actorId, corrId), writer, results);
+        }
+    }
+
+    // -------------------- Chunk pipeline --------------------
+
+    private List<BulkItemResult> processChunk(List<Item> items, String tenant, String actorId, String corrId) {
+        List<Item> valid = items.stream().filter(i -> i.error == null).toList();
+
+        // 1) Tokenize every SSN in the chunk
+        List<String> tokens = tokenizeAll(valid.stream().map(i -> i.req.ssn()).toList(), tenant);
+        for (int i = 0; i < valid.size(); i++) {
+            if (tokens.get(i) == null) valid.get(i).error = "TOKENIZATION_FAILED";
+            else valid.get(i).ssnToken = tokens.get(i);
+        }
+
+        // 2) One set-based dedupe query (current token plus any pre-rotation LOCAL tokens), plus duplicates
+        //    within the chunk itself
+        List<Item> tokenized = valid.stream().filter(i -> i.error == null).toList();
+        for (Item it : tokenized) it.previousTokens = tokenizer.previousSsnTokens(it.req.ssn(), tenant);
+        Map<PersonKey, String> existing = bulkRepo.findExistingBySsnTokenAndDob(
+                tokenized.stream().flatMap(i -> i.dedupeKeys().stream()).distinct().toList());
+        Map<PersonKey, String> claimed = new HashMap<>();
+        for (Item it : tokenized) {
+            for (PersonKey k : it.dedupeKeys()) {
+                String prior = existing.get(k);
+                if (prior != null) {
+                    claimed.putIfAbsent(it.key(), prior);
+                    break;
+                }
+            }
+        }
+
+        OffsetDateTime now = clock.now();
+        List<PersonRow> rows = new ArrayList<>();
+        List<OutboxWriter.Event> events = new ArrayList<>();
+        for (Item it : tokenized) {
+            String prior = claimed.get(it.key());
+            if (prior != null) {
+                it.duplicateOf = prior;
+                continue;
+            }
+            it.partyId = Ids.newPartyId();
+            claimed.put(it.key(), it.partyId);
+            it.ofacToVendor = localScreening.screenOfac(it.req.firstName().trim() + " " + it.req.lastName().trim(),
+                    it.dob, CreatePersonHandler.country(it.req.addresses())).needsVendor();
+            rows.add(new PersonRow(it.partyId, tenant, it.req.firstName().trim(), it.req.lastName().trim(),
+                    it.dob, it.ssnToken, it.last4, it.req.addresses(), it.req.contacts()));
+            events.add(new OutboxWriter.Event(it.partyId, null, "party.v1.PartyCreated",
+                    payloads.partyCreated(it.partyId, "PERSON", "LOW", now, corrId),
+                    Headers.of("tenant", tenant, "correlationId", corrId, "actorId", actorId)));
+        }
+
+        // 3) One transaction: batched rows + one outbox batch + screening requests, so no party commits unscreened
+        List<Item> created = tokenized.stream().filter(i -> i.partyId != null).toList();
+        try {
+            tx.executeWithoutResult(s -> {
+                bulkRepo.insertPeople(rows, now);
+                outbox.enqueueBatch(events);
+                for (Item it : created) {
+                    screening.enqueueKyc(it.partyId, it.req.consentId(), tenant, corrId);
+                    if (it.ofacToVendor) screening.enqueueOfac(it.partyId, it.req.consentId(), tenant, corrId);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Bulk chunk failed corrId={} tenant={} rows={}", corrId, tenant, rows.size(), e);
+            created.forEach(i -> {
+                i.partyId = null;
+                i.error = "CHUNK_WRITE_FAILED";
+            });
+        }
+
+        List<BulkItemResult> out = new ArrayList<>(items.size());
+        for (Item it : items) out.add(it.result());
+        out.forEach(r -> metrics.counter(MTR_BULK_ITEMS, "status", r.status()).increment());
+        return out;
+    }
+
+    /** Batched Vault calls (batch_input); per-item failures come back as null tokens. */
+    private List<String> tokenizeAll(List<String> ssns, String tenant) {
+        if (ssns.isEmpty()) return List.of();
+        List<String> tokens = new ArrayList<>(ssns.size());
+        for (TokenizationClient.TokenResult r : tokenizer.tokenizeSsnBatch(ssns, tenant)) {
+            tokens.add(r.ok() ? r.token() : null);
+        }
+        return tokens;
+    }
+
+    // -------------------- Parsing & output --------------------
+
+    private Item parse(long lineNo, String line, String tenant) {
+        Item it = new Item(lineNo);
+        try {
+            BulkPersonLine in = objectMapper.readValue(line, BulkPersonLine.class);
+            it.ref = in.ref();
+            it.req = in.person();
+        } catch (Exception e) {
+            it.error = "MALFORMED_LINE";
+            return it;
+        }
+        CreatePersonRequest r = it.req;
+        if (r == null || !StringUtils.hasText(r.firstName()) || !StringUtils.hasText(r.lastName())) {
+            it.error = "MISSING_NAME";
+        } else if (r.tenant() != null && !r.tenant().equals(tenant)) {
+            it.error = "TENANT_MISMATCH";
+        } else {
+            String digits = r.ssn() == null ? "" : r.ssn().replaceAll("[^0-9]", "");
+            if (digits.length() != 9) {
+                it.error = "INVALID_SSN";
+            } else {
+                it.last4 = digits.substring(5);
+                try { it.dob = LocalDate.parse(r.dob()); }
+                catch (DateTimeParseException | NullPointerException e) { it.error = "INVALID_DOB"; }
+            }
+        }
+        if (it.error != null) return it;
+        if (!StringUtils.hasText(r.consentId())) {
+            it.error = "MISSING_CONSENT";
+        } else if (r.addresses() == null || r.contacts() == null) {
+            it.error = "MISSING_LISTS";
+        } else if (!r.addresses().stream().allMatch(this::valid)) {
+            it.error = "INVALID_ADDRESS";
+        } else if (!r.contacts().stream().allMatch(this::valid)) {
+            it.error = "INVALID_CONTACT";
+        }
+        return it;
+    }
+
+    /** Bean Validation on one AddressInput/ContactInput; null entries are invalid. */
+    private boolean valid(Object entry) {
+        return entry != null && validator.validate(entry).isEmpty();
+    }
+
+    private static void emit(List<BulkItemResult> chunk, ObjectWriter writer, OutputStream out) throws Exception {
+        for (BulkItemResult r : chunk) {
+            out.write(writer.writeValueAsBytes(r));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /** Mutable per-line state while a chunk moves through the pipeline. */
+    private static final class Item {
+        final long line;
+        String ref;
+        CreatePersonRequest req;
+        LocalDate dob;
+        String last4;
+        String ssnToken;
+        List<String> previousTokens = List.of();
+        String partyId;
+        boolean ofacToVendor;
+        String duplicateOf;
+        String error;
+
+        Item(long line) { this.line = line; }
+
+        PersonKey key() { return new PersonKey(ssnToken, dob); }
+
+        List<PersonKey> dedupeKeys() {
+            List<PersonKey> keys = new ArrayList<>(1 + previousTokens.size());
+            keys.add(key());
+            for (String t : previousTokens) keys.add(new PersonKey(t, dob));
+            return keys;
+        }
+
+        BulkItemResult result() {
+            if (error != null)       return new BulkItemResult(line, ref, "REJECTED", null, error);
+            if (duplicateOf != null) return new BulkItemResult(line, ref, "DUPLICATE", duplicateOf, null);
+            return new BulkItemResult(line, ref, "CREATED", partyId, null);
+        }
+    }
+}
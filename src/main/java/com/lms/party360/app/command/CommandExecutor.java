@@ -0,0 +1,69 @@
+package com.lms.party360.app.command;
+
+import com.lms.party360.config.ExecutionProperties;
+import com.lms.party360.exception.Problem;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs blocking command handlers (Vault, Redis waits, JPA, sync screening) under the configured execution mode.
+ *
+ * PLATFORM: inline; the Tomcat worker pool already bounds concurrency.
+ * VIRTUAL:  request threads are virtual (see ExecutionConfig), so nothing bounds them except this semaphore,
+ *           sized to the JDBC pool so a burst cannot park thousands of threads on Hikari's getConnection().
+ *           No permit within acquireTimeout -> 503 with Retry-After (load shedding, not a server fault).
+ * Streaming endpoints take a {@link Permit} up front and hold it until the stream completes.
+ */
+@Slf4j
+public class CommandExecutor {
+
+    private final ExecutionProperties.Mode mode;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final Duration retryAfter;
+
+    public CommandExecutor(ExecutionProperties props, int permits, MeterRegistry metrics) {
+        this.mode = props.modeOrDefault();
+        this.permits = new Semaphore(Math.max(1, permits), true);
+        this.acquireTimeoutMs = props.acquireTimeoutOrDefault().toMillis();
+        this.retryAfter = props.retryAfterOrDefault();
+        if (metrics != null) {
+            Gauge.builder("party.command.permits.available", this.permits, Semaphore::availablePermits)
+                    .register(metrics);
+        }
+    }
+
+    /** Releases the blocking-work permit (if one was taken) exactly once. */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public <T> T run(String command, Callable<T> work) throws Exception {
+        try (Permit ignored = acquire(command)) {
+            return work.call();
+        }
+    }
+
+    /** Takes a permit for work that outlives the calling method (e.g. a StreamingResponseBody). */
+    public Permit acquire(String command) throws InterruptedException {
+        if (mode == ExecutionProperties.Mode.PLATFORM) {
+            return () -> {};
+        }
+        if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn("No blocking-work permit within {}ms for command={}", acquireTimeoutMs, command);
+            throw Problem.unavailable("CAPACITY_EXHAUSTED", "Service is busy, retry later.", retryAfter);
+        }
+        AtomicBoolean held = new AtomicBoolean(true);
+        return () -> {
+            if (held.compareAndSet(true, false)) permits.release();
+        };
+    }
+}
@@ -1,16 +1,22 @@
 package com.lms.party360.app.command;
 
+import com.lms.party360.api.model.request.AddressInput;
 import com.lms.party360.api.model.request.CreatePersonRequest;
 import com.lms.party360.api.model.response.CreatePartyResponse;
+import com.lms.party360.config.ExecutionProperties;
+import com.lms.party360.domain.service.ScreeningService;
+import com.lms.party360.events.publisher.EventPayloadFactory;
 import com.lms.party360.events.publisher.OutboxWriter;
 import com.lms.party360.exception.Problem;
 import com.lms.party360.integration.tokenizer.TokenizationClient;
 import com.lms.party360.integration.usps.AddressStandardizer;
 import com.lms.party360.idem.IdempotencyStore;
+import com.lms.party360.idem.RequestHasher;
 import com.lms.party360.repo.PartyRepository;
 import com.lms.party360.repo.PersonProfileRepository;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,14 +24,20 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,14 +58,30 @@ public class CreatePersonHandler {
     private final AddressRepository addressRepo;
     private final ContactRepository contactRepo;
     private final OutboxWriter outbox;
+    private final EventPayloadFactory payloads;
     private final ScreeningOrchestrator screening;
+    private final ScreeningService localScreening;
     private final TenantClock clock;
     private final MeterRegistry metrics;
+    private final ExecutionProperties execution;
 
     // ----------- Metrics --------------
     private static final String MTR_CREATE_LATENCY = "party.create.person.latency";
     private static final String MTR_CREATE_ERRORS  = "party.create.person.errors";
     private static final String MTR_IDEMPOTENCY_HIT= "party.create.person.idempotency.hit";
+    private static final String MTR_PREPARE_BRANCH = "party.create.person.prepare";
+
+    // ----------- Pre-persistence fan-out --------------
+    /**
+     * Runs tokenize + address + contact normalization (all independent remote calls) under the shared
+     * party.execution.prepare-deadline. FanOut copies the caller's MDC into each branch.
+     */
+    private final ExecutorService prepareExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    void shutdownPrepareExecutor() {
+        prepareExecutor.shutdownNow();
+    }
 
     /**
      * New, clean signature: pass only what the handler needs, not Authentication.
@@ -107,17 +135,45 @@ public class CreatePersonHandler {
         LocalDate dob = parseDob(req.dob());
 
         String ssnRaw   = req.ssn();
-        String ssnToken = safeTokenizeSsn(ssnRaw, tenant);
         String last4    = last4(ssnRaw);
 
-        personRepo.findBySsnTokenAndDob(ssnToken, dob)
-                .ifPresent(existing -> {
-                    throw Problem.conflict("PARTY_ALREADY_EXISTS",
-                            "A party with the same SSN and DOB already exists.");
-                });
+        // Independent remote calls run concurrently; latency is the slowest branch, not the sum.
+        String              ssnToken;
+        List<AddressDraft>  normalizedAddresses;
+        List<ContactDraft>  normalizedContacts;
+        try (FanOut prepare = new FanOut(prepareExecutor, execution.prepareDeadlineOrDefault(), metrics,
+                MTR_PREPARE_BRANCH)) {
+            Future<String>             token     = prepare.fork("tokenize", () -> safeTokenizeSsn(ssnRaw, tenant));
+            Future<List<AddressDraft>> addresses = prepare.fork("addresses",
+                    () -> addressStandardizer.normalizeAll(req.addresses(), tenant));
+            Future<List<ContactDraft>> contacts  = prepare.fork("contacts",
+                    () -> contactNormalizer.normalizeAll(req.contacts(), tenant));
+            prepare.join();
+            ssnToken            = token.resultNow();
+            normalizedAddresses = addresses.resultNow();
+            normalizedContacts  = contacts.resultNow();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (TimeoutException e) {
+            throw Problem.upstream("CREATE_PREPARE_TIMEOUT", "Upstream calls exceeded the create deadline.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Problem.internal("CREATE_INTERRUPTED", "Create was interrupted.");
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
 
-        List<AddressDraft>  normalizedAddresses = addressStandardizer.normalizeAll(req.addresses(), tenant);
-        List<ContactDraft>  normalizedContacts  = contactNormalizer.normalizeAll(req.contacts(), tenant);
+        // Rows created before a LOCAL key rotation keep their old-version token: check those too.
+        List<String> dedupeTokens = new ArrayList<>();
+        dedupeTokens.add(ssnToken);
+        dedupeTokens.addAll(tokenizer.previousSsnTokens(ssnRaw, tenant));
+        for (String token : dedupeTokens) {
+            personRepo.findBySsnTokenAndDob(token, dob)
+                    .ifPresent(existing -> {
+                        throw Problem.conflict("PARTY_ALREADY_EXISTS",
+                                "A party with the same SSN and DOB already exists.");
+                    });
+        }
 
         String          partyId = Ids.newPartyId();
         OffsetDateTime  now     = clock.now();
@@ -130,19 +186,28 @@ public class CreatePersonHandler {
         contactRepo.batchInsert(partyId, normalizedContacts);
 
         outbox.enqueue(partyId, "party.v1.PartyCreated",
-                EventPayloads.partyCreated(partyId, "PERSON", "LOW", now, corrId),
+                payloads.partyCreated(partyId, "PERSON", "LOW", now, corrId),
                 Headers.of("tenant", tenant, "correlationId", corrId, "actorId", actorId));
 
         boolean async = req.asyncScreen() == null || req.asyncScreen();
         String consentId = req.consentId();
 
+        // OFAC goes to the vendor only when the local list did not clear the name (POTENTIAL_MATCH to confirm,
+        // VENDOR_REQUIRED without a loaded list); KYC always does.
+        boolean ofacToVendor = localScreening.screenOfac(
+                req.firstName().trim() + " " + req.lastName().trim(), dob, country(req.addresses())).needsVendor();
+
         if (async) {
             String kycReqId  = screening.enqueueKyc(partyId, consentId, tenant, corrId);
-            String ofacReqId = screening.enqueueOfac(partyId, consentId, tenant, corrId);
+            String ofacReqId = ofacToVendor ? screening.enqueueOfac(partyId, consentId, tenant, corrId) : null;
             return new CreatePartyResponse(partyId, "PERSON", "LOW",
                     "QUEUED", kycReqId, ofacReqId, now);
         } else {
-            screening.runSyncAll(partyId, consentId, tenant, corrId);
+            if (ofacToVendor) {
+                screening.runSyncAll(partyId, consentId, tenant, corrId);
+            } else {
+                screening.runSyncKyc(partyId, consentId, tenant, corrId);
+            }
             return new CreatePartyResponse(partyId, "PERSON", "LOW",
                     "COMPLETED", null, null, now);
         }
@@ -150,13 +215,14 @@ public class CreatePersonHandler {
 
     // -------------------- Helpers --------------------
 
+    /** Canonical hash over every request field (names, ids, addresses, contacts, consent, tenant). */
     private static byte[] hashRequest(CreatePersonRequest req) {
-        String material = String.join("|",
-                safe(req.firstName()), safe(req.lastName()), safe(req.dob()),
-                safe(req.ssn()),
-                Boolean.toString(Boolean.TRUE.equals(req.asyncScreen()))
-        );
-        return Hashing.sha256(material);
+        return RequestHasher.sha256(req);
+    }
+
+    /** Country screened against the list: the first address that carries one. */
+    static String country(List<AddressInput> addresses) {
+        return addresses.stream().map(AddressInput::country).filter(StringUtils::hasText).findFirst().orElse(null);
     }
 
     private static String last4(String ssnRaw) {
@@ -187,8 +253,6 @@ public class CreatePersonHandler {
         }
     }
 
-    private static String safe(String s) { return s == null ? "" : s; }
-
     // ---- (ports & value records identical to the previous version; omitted for brevity) ----
     // Keep IdempotencyStore, TokenizationClient, AddressStandardizer, ContactNormalizer,
     // repositories, OutboxWriter, ScreeningOrchestrator, TenantClock, plus AddressDraft, ContactDraft, etc.
@@ -0,0 +1,89 @@
+package com.lms.party360.app.command;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scoped fan-out of independent blocking calls: shared deadline, cancel-on-first-failure, per-branch timing.
+ *
+ * Same shape as StructuredTaskScope.ShutdownOnFailure (still preview on Java 21): fork, join, read results;
+ * closing the scope cancels (interrupts) anything still running, so no branch outlives the request.
+ * Branches run with a copy of the forking thread's MDC (correlation id, tenant), cleared when they finish.
+ */
+final class FanOut implements AutoCloseable {
+
+    private final ExecutorCompletionService<Object> completions;
+    private final List<Future<Object>> forked = new ArrayList<>();
+    private final long deadlineNanos;
+    private final MeterRegistry metrics;
+    private final String timerName;
+
+    FanOut(ExecutorService executor, Duration deadline, MeterRegistry metrics, String timerName) {
+        this.completions = new ExecutorCompletionService<>(executor);
+        this.deadlineNanos = System.nanoTime() + deadline.toNanos();
+        this.metrics = metrics;
+        this.timerName = timerName;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Future<T> fork(String branch, Callable<T> task) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Future<Object> f = completions.submit(() -> {
+            if (mdc != null) MDC.setContextMap(mdc);
+            Timer.Sample sample = Timer.start(metrics);
+            String outcome = "success";
+            try {
+                return task.call();
+            } catch (Exception e) {
+                outcome = "error";
+                throw e;
+            } finally {
+                sample.stop(Timer.builder(timerName).tag("branch", branch).tag("outcome", outcome).register(metrics));
+                MDC.clear();
+            }
+        });
+        forked.add(f);
+        return (Future<T>) f;
+    }
+
+    /** Waits for all branches; the first failure (or the deadline) cancels the rest and is rethrown. */
+    void join() throws Exception {
+        for (int done = 0; done < forked.size(); done++) {
+            long remaining = deadlineNanos - System.nanoTime();
+            Future<Object> f = remaining > 0 ? completions.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (f == null) {
+                cancelAll();
+                throw new TimeoutException("fan-out deadline exceeded");
+            }
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                cancelAll();
+                if (e.getCause() instanceof Exception cause) throw cause;
+                throw e;
+            }
+        }
+    }
+
+    private void cancelAll() {
+        forked.forEach(f -> f.cancel(true));
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+}
@@ -0,0 +1,18 @@
+package com.lms.party360.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "events")
+public record EventProperties(
+        PayloadFormat payloadFormat   // JSON (default) or AVRO (binary + schema-id header) for party.v1.* events
+) {
+    public enum PayloadFormat { JSON, AVRO }
+
+    public static EventProperties defaults() {
+        return new EventProperties(PayloadFormat.JSON);
+    }
+
+    public PayloadFormat payloadFormatOrDefault() {
+        return payloadFormat == null ? PayloadFormat.JSON : payloadFormat;
+    }
+}
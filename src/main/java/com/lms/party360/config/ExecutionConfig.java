@@ -0,0 +1,79 @@
+package com.lms.party360.config;
+
+import com.lms.party360.app.command.CommandExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+
+/**
+ * Execution mode for the blocking create path (party.execution.mode).
+ *
+ * VIRTUAL swaps Tomcat's worker pool for a virtual-thread-per-request executor; CommandExecutor then
+ * bounds concurrent blocking work to the JDBC pool size instead of the (now absent) thread limit.
+ * Streamed responses (bulk import) run as async requests bounded by party.execution.stream-timeout rather
+ * than the servlet container's default of about 30s.
+ */
+@Configuration
+@EnableConfigurationProperties(ExecutionProperties.class)
+@Slf4j
+public class ExecutionConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "party.execution", name = "mode", havingValue = "VIRTUAL")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return handler -> handler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public CommandExecutor commandExecutor(ExecutionProperties props,
+                                           ObjectProvider<DataSource> dataSource,
+                                           ObjectProvider<MeterRegistry> metrics) {
+        int permits = blockingPermits(props, dataSource.getIfAvailable());
+        log.info("Command execution mode={} blockingPermits={}", props.modeOrDefault(), permits);
+        return new CommandExecutor(props, permits, metrics.getIfAvailable());
+    }
+
+    @Bean
+    public WebMvcConfigurer streamTimeoutConfigurer(ExecutionProperties props) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setDefaultTimeout(props.streamTimeoutOrDefault().toMillis());
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "party.execution", name = "pinning-detection", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ExecutionProperties props,
+                                                                   ObjectProvider<MeterRegistry> metrics) {
+        return new VirtualThreadPinningMonitor(props.pinnedThresholdOrDefault(), metrics.getIfAvailable());
+    }
+
+    /**
+     * Sizing guidance, enforced: each create holds one JDBC connection for its transaction, so more
+     * concurrent creates than pool slots only queues inside Hikari (and burns its connectionTimeout).
+     */
+    private static int blockingPermits(ExecutionProperties props, DataSource ds) {
+        int poolSize = (ds instanceof HikariDataSource h) ? h.getMaximumPoolSize() : 10;
+        int requested = props.maxConcurrentBlocking();
+        if (requested <= 0) return poolSize;
+        if (requested > poolSize) {
+            log.warn("party.execution.max-concurrent-blocking={} exceeds JDBC pool size {}; clamping",
+                    requested, poolSize);
+            return poolSize;
+        }
+        return requested;
+    }
+}
@@ -0,0 +1,49 @@
+package com.lms.party360.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "party.execution")
+public record ExecutionProperties(
+        Mode mode,                    // PLATFORM (Tomcat pool) or VIRTUAL (one virtual thread per request)
+        int  maxConcurrentBlocking,   // 0 = derive from JDBC pool size; never above it
+        Duration acquireTimeout,      // e.g., 2s wait for a permit before failing fast
+        Duration retryAfter,          // e.g., 1s; Retry-After on the 503 returned when no permit is free
+        Duration prepareDeadline,     // e.g., 3s shared budget for the create path's parallel upstream calls
+        Duration streamTimeout,       // e.g., 4h async request timeout for streamed responses (bulk import)
+        boolean pinningDetection,     // stream jdk.VirtualThreadPinned JFR events
+        Duration pinnedThreshold      // e.g., 20ms; shorter pins are ignored
+) {
+    public enum Mode { PLATFORM, VIRTUAL }
+
+    public static ExecutionProperties defaults() {
+        return new ExecutionProperties(Mode.PLATFORM, 0, Duration.ofSeconds(2), Duration.ofSeconds(1),
+                Duration.ofSeconds(3), Duration.ofHours(4), false,
+                Duration.ofMillis(20));
+    }
+
+    public Mode modeOrDefault() {
+        return mode == null ? Mode.PLATFORM : mode;
+    }
+
+    public Duration acquireTimeoutOrDefault() {
+        return acquireTimeout == null ? Duration.ofSeconds(2) : acquireTimeout;
+    }
+
+    public Duration retryAfterOrDefault() {
+        return retryAfter == null ? Duration.ofSeconds(1) : retryAfter;
+    }
+
+    public Duration prepareDeadlineOrDefault() {
+        return prepareDeadline == null ? Duration.ofSeconds(3) : prepareDeadline;
+    }
+
+    public Duration streamTimeoutOrDefault() {
+        return streamTimeout == null ? Duration.ofHours(4) : streamTimeout;
+    }
+
+    public Duration pinnedThresholdOrDefault() {
+        return pinnedThreshold == null ? Duration.ofMillis(20) : pinnedThreshold;
+    }
+}
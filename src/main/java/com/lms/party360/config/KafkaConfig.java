@@ -1,4 +1,73 @@
 package com.lms.party360.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Event producer (party.kafka.producer.*): one tuned ProducerFactory behind the outbox relays and
+ * PartyEventsProducer.
+ *
+ * Profile values (linger, batch size, compression, buffer memory) are applied on top of spring.kafka.producer.*,
+ * then explicit overrides. Idempotence is on by default, which Kafka only honours with acks=all and at most 5
+ * in-flight requests; that combination is enforced here rather than silently downgraded by the client. Unless
+ * metrics=false, the client metrics are bound to Micrometer as kafka.producer.* (record-send-rate, batch-size-avg,
+ * request-latency-avg, buffer-available-bytes…), tagged per client id.
+ */
+@Configuration
+@EnableConfigurationProperties(KafkaProducerProperties.class)
+@Slf4j
 public class KafkaConfig {
+
+    @Bean(name = "eventsProducerFactory")
+    public ProducerFactory<String, byte[]> eventsProducerFactory(KafkaProperties kafka, KafkaProducerProperties props,
+                                                                 ObjectProvider<MeterRegistry> metrics) {
+        Map<String, Object> cfg = kafka.buildProducerProperties(null);
+        cfg.putAll(tuning(props));
+        cfg.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        cfg.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(cfg);
+        MeterRegistry registry = metrics.getIfAvailable();
+        if (props.metricsOrDefault() && registry != null) {
+            factory.addListener(new MicrometerProducerListener<>(registry));
+        }
+        log.info("Event producer profile={} linger={} batchSize={} compression={} idempotence={} maxInFlight={}",
+                props.profileOrDefault(), props.lingerOrDefault(), props.batchSizeOrDefault(),
+                props.compressionOrDefault(), props.idempotenceOrDefault(), props.maxInFlightOrDefault());
+        return factory;
+    }
+
+    static Map<String, Object> tuning(KafkaProducerProperties props) {
+        boolean idempotent = props.idempotenceOrDefault();
+        int maxInFlight = props.maxInFlightOrDefault();
+        if (idempotent && maxInFlight > 5) {
+            throw new IllegalStateException("party.kafka.producer.max-in-flight must be <= 5 with idempotence enabled");
+        }
+        Map<String, Object> cfg = new HashMap<>();
+        cfg.put(ProducerConfig.LINGER_MS_CONFIG, (int) props.lingerOrDefault().toMillis());
+        cfg.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) props.batchSizeOrDefault().toBytes());
+        cfg.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, props.compressionOrDefault().name().toLowerCase(Locale.ROOT));
+        cfg.put(ProducerConfig.BUFFER_MEMORY_CONFIG, props.bufferMemoryOrDefault().toBytes());
+        cfg.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, props.maxBlockOrDefault().toMillis());
+        cfg.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) props.deliveryTimeoutOrDefault().toMillis());
+        cfg.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotent);
+        cfg.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG, maxInFlight);
+        if (idempotent) cfg.put(ProducerConfig.ACKS_CONFIG, "all");
+        return cfg;
+    }
 }
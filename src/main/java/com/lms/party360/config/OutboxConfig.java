@@ -1,4 +1,101 @@
 package com.lms.party360.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.party360.events.publisher.EventPayloadFactory;
+import com.lms.party360.events.publisher.LocalSchemaRegistry;
+import com.lms.party360.events.publisher.OutboxCdcRelay;
+import com.lms.party360.events.publisher.OutboxPartitionMaintainer;
+import com.lms.party360.events.publisher.OutboxPublisher;
+import com.lms.party360.events.publisher.PartyEventsProducer;
+import com.lms.party360.events.publisher.SchemaRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox wiring (prefix outbox.*).
+ *
+ * OutboxWriterJdbc is always active (the create paths stage events through it); a relay only runs where
+ * outbox.relay-enabled=true, picked by outbox.relay-mode:
+ *   POLLING (default) - OutboxPublisher; every pod may run it, lanes are owned through advisory locks.
+ *   CDC               - OutboxCdcRelay tails a logical replication slot; one consumer per slot.
+ * outbox_event is range-partitioned by created_at (V7); OutboxPartitionMaintainer (outbox.partitioning.*, on
+ * by default) creates future partitions and drops expired, fully published ones. With it, prefer
+ * cleanup=MARK: retention reclaims the space without per-row DELETEs.
+ * Relays wait for acks at least as long as the producer's delivery.timeout.ms (see
+ * OutboxProperties#withAckTimeoutCovering), so a row is never re-sent while its first send is still retrying.
+ * Payload encoding (events.payload-format JSON|AVRO) is EventPayloadFactory's; Avro schema ids come from the
+ * SchemaRegistry bean (LocalSchemaRegistry unless one is provided).
+ */
+@Configuration
+@EnableConfigurationProperties({OutboxProperties.class, EventProperties.class})
 public class OutboxConfig {
+
+    /** String keys / raw byte[] values: payloads are serialized once, when staged. Tuning lives in KafkaConfig. */
+    @Bean(name = "outboxKafkaTemplate")
+    public KafkaTemplate<String, byte[]> outboxKafkaTemplate(
+            @Qualifier("eventsProducerFactory") ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SchemaRegistry.class)
+    public SchemaRegistry schemaRegistry() {
+        return new LocalSchemaRegistry();
+    }
+
+    @Bean
+    public EventPayloadFactory eventPayloadFactory(EventProperties props, SchemaRegistry registry) {
+        return new EventPayloadFactory(props, registry);
+    }
+
+    @Bean
+    public PartyEventsProducer partyEventsProducer(@Qualifier("outboxKafkaTemplate") KafkaTemplate<String, byte[]> kafka,
+                                                   ObjectMapper objectMapper, OutboxProperties props) {
+        return new PartyEventsProducer(kafka, objectMapper, props.topicOrDefault());
+    }
+
+    @Bean
+    @ConditionalOnExpression("${outbox.relay-enabled:false} and '${outbox.relay-mode:POLLING}'.equalsIgnoreCase('POLLING')")
+    public OutboxPublisher outboxPublisher(JdbcTemplate jdbc, TransactionTemplate tx,
+                                           @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, byte[]> kafka,
+                                           ObjectMapper objectMapper, OutboxProperties props,
+                                           KafkaProducerProperties producer,
+                                           ObjectProvider<MeterRegistry> metrics) {
+        return new OutboxPublisher(jdbc, tx, kafka, objectMapper,
+                props.withAckTimeoutCovering(producer.deliveryTimeoutOrDefault()),
+                metrics.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    @ConditionalOnExpression("${outbox.relay-enabled:false} and '${outbox.relay-mode:POLLING}'.equalsIgnoreCase('CDC')")
+    public OutboxCdcRelay outboxCdcRelay(DataSourceProperties dataSource, JdbcTemplate jdbc,
+                                         @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, byte[]> kafka,
+                                         ObjectMapper objectMapper, OutboxProperties props,
+                                         KafkaProducerProperties producer,
+                                         ObjectProvider<MeterRegistry> metrics) {
+        return new OutboxCdcRelay(dataSource, jdbc, kafka, objectMapper,
+                props.withAckTimeoutCovering(producer.deliveryTimeoutOrDefault()),
+                metrics.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "outbox.partitioning", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxPartitionMaintainer outboxPartitionMaintainer(JdbcTemplate jdbc, TransactionTemplate tx,
+                                                               OutboxProperties props,
+                                                               ObjectProvider<MeterRegistry> metrics) {
+        return new OutboxPartitionMaintainer(jdbc, tx, props, metrics.getIfAvailable(SimpleMeterRegistry::new));
+    }
 }
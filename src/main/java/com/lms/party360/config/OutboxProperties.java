@@ -0,0 +1,166 @@
+package com.lms.party360.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+        boolean relayEnabled,         // run a relay in this instance (POLLING is safe on every pod: SKIP LOCKED)
+        RelayMode relayMode,          // POLLING (OutboxPublisher) or CDC (OutboxCdcRelay, one active pod per slot)
+        String topic,                 // e.g., party.events.v1
+        int batchSize,                // rows claimed per cycle (per lane)
+        int lanes,                    // POLLING: ordered worker lanes; lane = kafkaPartition(msg_key) % lanes
+        Duration pollInterval,        // idle wait between empty polls
+        Duration ackTimeout,          // max wait for Kafka acks before the batch is left for retry; >= delivery.timeout.ms
+        Cleanup cleanup,              // MARK (published_at) or DELETE once acked
+        Cdc cdc,                      // logical-decoding relay settings (relayMode=CDC)
+        Partitioning partitioning     // time-range partition maintenance + retention of outbox_event
+) {
+    public enum Cleanup { MARK, DELETE }
+
+    public enum RelayMode { POLLING, CDC }
+
+    public static OutboxProperties defaults() {
+        return new OutboxProperties(false, RelayMode.POLLING, "party.events.v1", 200, 4, Duration.ofMillis(250),
+                null, Cleanup.MARK, Cdc.defaults(), Partitioning.defaults());
+    }
+
+    /** Margin over delivery.timeout.ms so the producer's final outcome for a send arrives before the relay gives up. */
+    static final Duration ACK_SLACK = Duration.ofSeconds(5);
+
+    public RelayMode relayModeOrDefault() {
+        return relayMode == null ? RelayMode.POLLING : relayMode;
+    }
+
+    public String topicOrDefault() {
+        return topic == null || topic.isBlank() ? "party.events.v1" : topic;
+    }
+
+    public int batchSizeOrDefault() {
+        return batchSize <= 0 ? 200 : batchSize;
+    }
+
+    public int lanesOrDefault() {
+        return lanes <= 0 ? 4 : lanes;
+    }
+
+    public Duration pollIntervalOrDefault() {
+        return pollInterval == null ? Duration.ofMillis(250) : pollInterval;
+    }
+
+    public Duration ackTimeoutOrDefault() {
+        return ackTimeout == null ? KafkaProducerProperties.defaults().deliveryTimeoutOrDefault().plus(ACK_SLACK)
+                : ackTimeout;
+    }
+
+    /**
+     * A relay that stops waiting while the producer is still retrying re-sends the row next cycle, behind or
+     * ahead of the original: duplicates and reordering. So an unset ackTimeout is derived from the producer's
+     * delivery.timeout.ms (plus {@link #ACK_SLACK}), and a shorter explicit one fails startup.
+     */
+    public OutboxProperties withAckTimeoutCovering(Duration deliveryTimeout) {
+        if (ackTimeout != null && ackTimeout.compareTo(deliveryTimeout) < 0) {
+            throw new IllegalArgumentException("outbox.ack-timeout=" + ackTimeout
+                    + " is shorter than party.kafka.producer.delivery-timeout=" + deliveryTimeout
+                    + "; the relay would re-send rows the producer is still retrying");
+        }
+        Duration effective = ackTimeout != null ? ackTimeout : deliveryTimeout.plus(ACK_SLACK);
+        return new OutboxProperties(relayEnabled, relayMode, topic, batchSize, lanes, pollInterval, effective,
+                cleanup, cdc, partitioning);
+    }
+
+    public Cleanup cleanupOrDefault() {
+        return cleanup == null ? Cleanup.MARK : cleanup;
+    }
+
+    public Cdc cdcOrDefaults() {
+        return cdc == null ? Cdc.defaults() : cdc;
+    }
+
+    public Partitioning partitioningOrDefaults() {
+        return partitioning == null ? Partitioning.defaults() : partitioning;
+    }
+
+    public record Cdc(
+            String slotName,            // logical replication slot (pgoutput), created on first start
+            String publication,         // publication over outbox_event (inserts only), created on first start
+            int maxInFlight,            // un-acked Kafka sends before WAL reading pauses (backpressure)
+            Duration checkpointInterval, // how often acked LSN + cleanup are persisted
+            Duration statusInterval,    // standby status (feedback) interval towards the server
+            Duration backoffInitial,    // first reconnect delay after a Kafka or replication failure
+            Duration backoffMax         // reconnect delay cap (doubles per consecutive failure)
+    ) {
+        public static Cdc defaults() {
+            return new Cdc("party360_outbox", "party360_outbox_pub", 1000, Duration.ofMillis(500),
+                    Duration.ofSeconds(10), Duration.ofMillis(200), Duration.ofSeconds(30));
+        }
+
+        public String slotNameOrDefault() {
+            return slotName == null || slotName.isBlank() ? "party360_outbox" : slotName;
+        }
+
+        public String publicationOrDefault() {
+            return publication == null || publication.isBlank() ? "party360_outbox_pub" : publication;
+        }
+
+        public int maxInFlightOrDefault() {
+            return maxInFlight <= 0 ? 1000 : maxInFlight;
+        }
+
+        public Duration checkpointIntervalOrDefault() {
+            return checkpointInterval == null ? Duration.ofMillis(500) : checkpointInterval;
+        }
+
+        public Duration statusIntervalOrDefault() {
+            return statusInterval == null ? Duration.ofSeconds(10) : statusInterval;
+        }
+
+        public Duration backoffInitialOrDefault() {
+            return backoffInitial == null ? Duration.ofMillis(200) : backoffInitial;
+        }
+
+        public Duration backoffMaxOrDefault() {
+            return backoffMax == null ? Duration.ofSeconds(30) : backoffMax;
+        }
+    }
+
+    /**
+     * outbox.partitioning.enabled (default true) is not bound here: it is only the condition on the
+     * OutboxPartitionMaintainer bean, which runs on one pod at a time (advisory lock).
+     */
+    public record Partitioning(
+            Granularity granularity,    // partition width: DAY, WEEK or MONTH (UTC boundaries)
+            int premake,                // future partitions kept ahead of the current one
+            Duration retention,         // partitions whose upper bound is older than this are dropped
+            Duration interval,          // maintenance run interval
+            Duration lockTimeout        // cap on waiting for the parent lock when attaching/detaching
+    ) {
+        public enum Granularity { DAY, WEEK, MONTH }
+
+        public static Partitioning defaults() {
+            return new Partitioning(Granularity.DAY, 3, Duration.ofDays(7), Duration.ofHours(1),
+                    Duration.ofSeconds(2));
+        }
+
+        public Granularity granularityOrDefault() {
+            return granularity == null ? Granularity.DAY : granularity;
+        }
+
+        public int premakeOrDefault() {
+            return premake <= 0 ? 3 : premake;
+        }
+
+        public Duration retentionOrDefault() {
+            return retention == null ? Duration.ofDays(7) : retention;
+        }
+
+        public Duration intervalOrDefault() {
+            return interval == null ? Duration.ofHours(1) : interval;
+        }
+
+        public Duration lockTimeoutOrDefault() {
+            return lockTimeout == null ? Duration.ofSeconds(2) : lockTimeout;
+        }
+    }
+}
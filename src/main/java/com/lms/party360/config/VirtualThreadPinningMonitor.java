@@ -0,0 +1,53 @@
+package com.lms.party360.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} JFR events in-process: a virtual thread that blocks while pinned
+ * (inside {@code synchronized} or a native frame) holds its carrier, which silently caps concurrency.
+ * Each event is counted ({@code jvm.threads.virtual.pinned}) and logged with the top frames so the
+ * offending monitor can be swapped for a ReentrantLock.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final int FRAMES = 6;
+
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry metrics) {
+        Counter pinned = metrics == null ? null : Counter.builder("jvm.threads.virtual.pinned").register(metrics);
+        this.stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", e -> {
+            if (pinned != null) pinned.increment();
+            log.warn("Virtual thread pinned for {}ms at {}", e.getDuration().toMillis(), topFrames(e));
+        });
+        stream.startAsync();
+    }
+
+    private static String topFrames(RecordedEvent e) {
+        if (e.getStackTrace() == null) return "(no stack)";
+        return e.getStackTrace().getFrames().stream()
+                .limit(FRAMES)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static String frame(RecordedFrame f) {
+        return f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
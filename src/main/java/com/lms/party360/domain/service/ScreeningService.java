@@ -1,4 +1,58 @@
 package com.lms.party360.domain.service;
 
+import com.lms.party360.integration.ofac.OfacClient;
+import com.lms.party360.integration.ofac.SdnIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * ScreeningService
+ *
+ * Synchronous OFAC screening at party creation. With the in-process engine (ofac.local.enabled) the list check
+ * is a sub-millisecond index lookup:
+ *   CLEAR           - no list name scores at or above the threshold; no vendor call needed
+ *   POTENTIAL_MATCH - local hits; the vendor confirms or clears them
+ *   VENDOR_REQUIRED - no local engine, or no list loaded yet; screen remotely as before
+ */
+@Service
+@Slf4j
 public class ScreeningService {
+
+    public enum Outcome { CLEAR, POTENTIAL_MATCH, VENDOR_REQUIRED }
+
+    public record OfacScreening(Outcome outcome, String listVersion, List<SdnIndex.Hit> hits) {
+        public boolean needsVendor() {
+            return outcome != Outcome.CLEAR;
+        }
+    }
+
+    private final ObjectProvider<OfacClient> ofac;
+    private final MeterRegistry metrics;
+
+    public ScreeningService(ObjectProvider<OfacClient> ofac, MeterRegistry metrics) {
+        this.ofac = ofac;
+        this.metrics = metrics;
+    }
+
+    public OfacScreening screenOfac(String fullName, LocalDate dob, String country) {
+        OfacClient client = ofac.getIfAvailable();
+        OfacScreening result;
+        if (client == null || !client.ready()) {
+            result = new OfacScreening(Outcome.VENDOR_REQUIRED, null, List.of());
+        } else {
+            OfacClient.Result r = client.screen(fullName, dob, country);
+            result = new OfacScreening(r.clear() ? Outcome.CLEAR : Outcome.POTENTIAL_MATCH, r.listVersion(), r.hits());
+            if (!r.clear()) {
+                log.info("OFAC potential match list={} hits={} best={}", r.listVersion(), r.hits().size(),
+                        r.hits().get(0).entry().uid());
+            }
+        }
+        metrics.counter("screening.ofac.local", "outcome", result.outcome().name()).increment();
+        return result;
+    }
 }
@@ -0,0 +1,83 @@
+package com.lms.party360.events.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificRecordBase;
+
+/**
+ * party.v1.PartyCreated (Avro SpecificRecord).
+ *
+ * Same shape as avro-tools output, kept in source so the build needs no code-generation step. The schema is
+ * the contract: evolve it compatibly (new fields need defaults) and keep get/put in field order.
+ * Strings are java.lang.String (avro.java.string); occurredAt is epoch millis (timestamp-millis).
+ */
+public class PartyCreated extends SpecificRecordBase {
+
+    public static final Schema SCHEMA$ = new Schema.Parser().parse("""
+            {"type":"record","name":"PartyCreated","namespace":"party.v1","fields":[
+              {"name":"partyId","type":{"type":"string","avro.java.string":"String"}},
+              {"name":"partyType","type":{"type":"string","avro.java.string":"String"}},
+              {"name":"riskLevel","type":{"type":"string","avro.java.string":"String"}},
+              {"name":"occurredAt","type":{"type":"long","logicalType":"timestamp-millis"}},
+              {"name":"correlationId","type":["null",{"type":"string","avro.java.string":"String"}],"default":null}
+            ]}""");
+
+    private String partyId;
+    private String partyType;
+    private String riskLevel;
+    private long occurredAt;
+    private String correlationId;
+
+    /** For Avro's reflective instantiation on read. */
+    public PartyCreated() {}
+
+    public PartyCreated(String partyId, String partyType, String riskLevel, long occurredAt, String correlationId) {
+        this.partyId = partyId;
+        this.partyType = partyType;
+        this.riskLevel = riskLevel;
+        this.occurredAt = occurredAt;
+        this.correlationId = correlationId;
+    }
+
+    public static Schema getClassSchema() {
+        return SCHEMA$;
+    }
+
+    @Override
+    public Schema getSchema() {
+        return SCHEMA$;
+    }
+
+    @Override
+    public Object get(int field) {
+        return switch (field) {
+            case 0 -> partyId;
+            case 1 -> partyType;
+            case 2 -> riskLevel;
+            case 3 -> occurredAt;
+            case 4 -> correlationId;
+            default -> throw new IndexOutOfBoundsException("Invalid index: " + field);
+        };
+    }
+
+    @Override
+    public void put(int field, Object value) {
+        switch (field) {
+            case 0 -> partyId = value == null ? null : value.toString();
+            case 1 -> partyType = value == null ? null : value.toString();
+            case 2 -> riskLevel = value == null ? null : value.toString();
+            case 3 -> occurredAt = (Long) value;
+            case 4 -> correlationId = value == null ? null : value.toString();
+            default -> throw new IndexOutOfBoundsException("Invalid index: " + field);
+        }
+    }
+
+    public String getPartyId() { return partyId; }
+
+    public String getPartyType() { return partyType; }
+
+    public String getRiskLevel() { return riskLevel; }
+
+    public long getOccurredAt() { return occurredAt; }
+
+    public String getCorrelationId() { return correlationId; }
+}
@@ -0,0 +1,9 @@
+package com.lms.party360.events.publisher;
+
+import java.util.Map;
+
+/**
+ * A payload that is already serialized (e.g. Avro binary). OutboxWriterJdbc stores the bytes and content type
+ * verbatim instead of JSON-encoding the object, and adds {@code headers} (e.g. schema-id) to the event's own.
+ */
+public record EncodedPayload(String contentType, byte[] bytes, Map<String, String> headers) {}
@@ -1,4 +1,109 @@
 package com.lms.party360.events.publisher;
 
+import com.lms.party360.config.EventProperties;
+import com.lms.party360.events.avro.PartyCreated;
+import com.lms.party360.util.ScratchPool;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+import org.apache.avro.specific.SpecificRecordBase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * EventPayloadFactory
+ *
+ * Builds party.v1.* event payloads for the outbox in the configured format (events.payload-format):
+ *   JSON - a plain map, serialized by OutboxWriterJdbc (content-type application/json)
+ *   AVRO - an {@link EncodedPayload}: raw Avro binary of the SpecificRecord (no framing bytes) plus a
+ *          {@value #H_SCHEMA_ID} header. Schemas are registered once per record class and the id cached, so
+ *          the hot path is one encode into a pooled buffer (reused on virtual threads too).
+ * Consumers (and tests) read Avro payloads back with {@link #decode}.
+ */
 public class EventPayloadFactory {
+
+    public static final String CONTENT_TYPE_AVRO = "application/avro";
+    public static final String H_SCHEMA_ID = "schema-id";
+
+    private final EventProperties.PayloadFormat format;
+    private final SchemaRegistry registry;
+
+    /** Per record class: writer + registered schema id. */
+    private final Map<Class<?>, AvroWriter> writers = new ConcurrentHashMap<>();
+    final ScratchPool<Buffer> buffers = ScratchPool.perCore(Buffer::new);
+
+    public EventPayloadFactory(EventProperties props, SchemaRegistry registry) {
+        this.format = props.payloadFormatOrDefault();
+        this.registry = registry;
+    }
+
+    private record AvroWriter(SpecificDatumWriter<SpecificRecord> writer, Map<String, String> headers) {}
+
+    static final class Buffer {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        BinaryEncoder encoder;
+    }
+
+    // -------------------- party.v1 --------------------
+
+    public Object partyCreated(String partyId, String partyType, String riskLevel,
+                               OffsetDateTime occurredAt, String correlationId) {
+        if (format == EventProperties.PayloadFormat.AVRO) {
+            return avro(new PartyCreated(partyId, partyType, riskLevel,
+                    occurredAt.toInstant().toEpochMilli(), correlationId));
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("partyId", partyId);
+        m.put("partyType", partyType);
+        m.put("riskLevel", riskLevel);
+        m.put("occurredAt", occurredAt);
+        m.put("correlationId", correlationId);
+        return m;
+    }
+
+    // -------------------- Avro --------------------
+
+    public EncodedPayload avro(SpecificRecordBase record) {
+        AvroWriter w = writers.computeIfAbsent(record.getClass(), c -> {
+            Schema schema = record.getSchema();
+            int id = registry.register(schema.getFullName(), schema);
+            return new AvroWriter(new SpecificDatumWriter<>(schema), Map.of(H_SCHEMA_ID, Integer.toString(id)));
+        });
+        Buffer buf = buffers.borrow();
+        try {
+            buf.out.reset();
+            buf.encoder = EncoderFactory.get().binaryEncoder(buf.out, buf.encoder);
+            w.writer().write(record, buf.encoder);
+            buf.encoder.flush();
+            return new EncodedPayload(CONTENT_TYPE_AVRO, buf.out.toByteArray(), w.headers());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Avro encoding failed for " + record.getSchema().getFullName(), e);
+        } finally {
+            buffers.release(buf);
+        }
+    }
+
+    /** Reads an Avro payload written with schema {@code schemaId} into {@code type} (schema resolution applies). */
+    public <T extends SpecificRecordBase> T decode(byte[] payload, String schemaId, Class<T> type) {
+        Schema writer = registry.byId(Integer.parseInt(schemaId));
+        try {
+            T reuse = type.getDeclaredConstructor().newInstance();
+            SpecificDatumReader<T> reader = new SpecificDatumReader<>(writer, reuse.getSchema());
+            return reader.read(reuse, DecoderFactory.get().binaryDecoder(payload, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Avro decoding failed for schema id " + schemaId, e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Not an instantiable SpecificRecord: " + type.getName(), e);
+        }
+    }
 }
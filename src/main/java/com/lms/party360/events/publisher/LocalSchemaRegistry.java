@@ -0,0 +1,37 @@
+package com.lms.party360.events.publisher;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process SchemaRegistry stand-in (tests, local runs, and deployments without a registry server).
+ *
+ * Ids are derived from the schema's parsing-canonical-form fingerprint (CRC-64-AVRO folded to 31 bits), so
+ * every process that knows the same schemas assigns the same ids without coordination; a consumer only has
+ * to register the schemas it can read. Subjects are not versioned here.
+ */
+public class LocalSchemaRegistry implements SchemaRegistry {
+
+    private final Map<Integer, Schema> byId = new ConcurrentHashMap<>();
+
+    @Override
+    public int register(String subject, Schema schema) {
+        long fp = SchemaNormalization.parsingFingerprint64(schema);
+        int id = (int) ((fp ^ (fp >>> 32)) & 0x7fffffff);
+        Schema prior = byId.putIfAbsent(id, schema);
+        if (prior != null && !SchemaNormalization.toParsingForm(prior).equals(SchemaNormalization.toParsingForm(schema))) {
+            throw new IllegalStateException("Schema id collision for subject " + subject + " (id " + id + ")");
+        }
+        return id;
+    }
+
+    @Override
+    public Schema byId(int id) {
+        Schema s = byId.get(id);
+        if (s == null) throw new IllegalArgumentException("Unknown schema id " + id);
+        return s;
+    }
+}
@@ -0,0 +1,246 @@
+package com.lms.party360.events.publisher;
+
+import com.lms.party360.config.OutboxProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OutboxPartitionMaintainer
+ *
+ * Keeps the range-partitioned outbox_event table (V7) bounded. Every run, on one pod at a time (advisory lock):
+ *   1) creates the current and the next {@code premake} partitions (DAY/WEEK/MONTH, UTC), skipping ranges
+ *      that overlap an existing partition (e.g. the legacy one); rows of a new range that already landed in
+ *      the DEFAULT partition (a missed run) are moved into it
+ *   2) drops partitions whose upper bound is older than {@code retention}, but only once none of their rows
+ *      is pending: DETACH + DROP replaces row-by-row DELETEs, so there is no dead-tuple backlog to vacuum
+ *   3) purges published, expired rows that landed in the DEFAULT partition (it is never dropped)
+ * Creation and retention (2, 3) run in separate transactions, so a drop stuck behind a busy partition does not
+ * roll back the partitions created ahead. DDL runs with a short lock_timeout so a busy parent table makes the
+ * step retry next interval instead of queueing relay and writer traffic behind it. Runs at start-up and every
+ * {@code interval}.
+ */
+@Slf4j
+public class OutboxPartitionMaintainer implements SmartLifecycle {
+
+    static final String PARENT = "outbox_event";
+    static final String DEFAULT_PARTITION = "outbox_event_default";
+
+    /** Same advisory namespace as the relay lanes; lanes use keys >= 0. */
+    private static final int LOCK_CLASS = 0x6f757462;
+    private static final int LOCK_KEY = -1;
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname,
+                   substring(pg_get_expr(c.relpartbound, c.oid) from 'FROM \\(''([^'']+)''\\)')::timestamptz,
+                   substring(pg_get_expr(c.relpartbound, c.oid) from 'TO \\(''([^'']+)''\\)')::timestamptz
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'outbox_event'::regclass
+               AND pg_get_expr(c.relpartbound, c.oid) <> 'DEFAULT'
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final OutboxProperties.Partitioning props;
+
+    private final Counter created;
+    private final Counter dropped;
+    private final AtomicInteger partitions = new AtomicInteger();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public OutboxPartitionMaintainer(JdbcTemplate jdbc, TransactionTemplate tx, OutboxProperties props,
+                                     MeterRegistry metrics) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.props = props.partitioningOrDefaults();
+        this.created = metrics.counter("outbox.partitions.changes", "action", "created");
+        this.dropped = metrics.counter("outbox.partitions.changes", "action", "dropped");
+        Gauge.builder("outbox.partitions", partitions, AtomicInteger::get).register(metrics);
+    }
+
+    record Partition(String name, Instant from, Instant to) {
+        boolean overlaps(Instant start, Instant end) {
+            return (from == null || from.isBefore(end)) && (to == null || to.isAfter(start));
+        }
+    }
+
+    // -------------------- Maintenance run --------------------
+
+    void maintain() {
+        Instant now = Instant.now();
+        inLockedTx("creation", () -> {
+            List<Partition> existing = existing();
+            partitions.set(existing.size() + createAhead(existing, now));
+        });
+        inLockedTx("retention", () -> {
+            List<Partition> existing = existing();
+            partitions.set(existing.size() - dropExpired(existing, now));
+            purgeDefault(now);
+        });
+    }
+
+    /** Runs one maintenance step in its own transaction, unless another pod holds the advisory lock. */
+    private void inLockedTx(String step, Runnable body) {
+        try {
+            tx.executeWithoutResult(status -> {
+                if (!Boolean.TRUE.equals(jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?, ?)",
+                        Boolean.class, LOCK_CLASS, LOCK_KEY))) {
+                    log.debug("Outbox partition {} running elsewhere; skipping", step);
+                    return;
+                }
+                jdbc.execute("SET LOCAL lock_timeout = '" + props.lockTimeoutOrDefault().toMillis() + "ms'");
+                body.run();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Outbox partition {} failed; retrying in {}", step, props.intervalOrDefault(), e);
+        }
+    }
+
+    private List<Partition> existing() {
+        return jdbc.query(PARTITIONS_SQL, (rs, i) -> new Partition(rs.getString(1),
+                instant(rs.getObject(2, OffsetDateTime.class)), instant(rs.getObject(3, OffsetDateTime.class))));
+    }
+
+    private int createAhead(List<Partition> existing, Instant now) {
+        int n = 0;
+        LocalDate start = periodStart(LocalDate.ofInstant(now, ZoneOffset.UTC));
+        for (int i = 0; i <= props.premakeOrDefault(); i++) {
+            LocalDate end = next(start);
+            Instant from = start.atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant to = end.atStartOfDay(ZoneOffset.UTC).toInstant();
+            if (existing.stream().noneMatch(p -> p.overlaps(from, to))) {
+                String name = PARENT + "_p" + SUFFIX.format(start);
+                if (defaultHasRows(from, to)) {
+                    adoptFromDefault(name, from, to);
+                } else {
+                    jdbc.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT
+                            + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                }
+                created.increment();
+                n++;
+                log.info("Created outbox partition {} [{}, {})", name, from, to);
+            }
+            start = end;
+        }
+        return n;
+    }
+
+    private boolean defaultHasRows(Instant from, Instant to) {
+        return !jdbc.queryForList("SELECT 1 FROM " + DEFAULT_PARTITION
+                        + " WHERE created_at >= ? AND created_at < ? LIMIT 1", Integer.class,
+                OffsetDateTime.ofInstant(from, ZoneOffset.UTC), OffsetDateTime.ofInstant(to, ZoneOffset.UTC)).isEmpty();
+    }
+
+    /**
+     * CREATE ... PARTITION OF fails while the DEFAULT partition holds rows of the new range, and would keep
+     * failing every run. Instead the table is built standalone, the rows are moved into it and it is attached.
+     * Rows keep their id and published_at, so pending ones are relayed once; inserted before the ATTACH, they
+     * are not re-published to the CDC relay either. A relay holding one of them makes the move hit
+     * lock_timeout, and the step is retried next interval.
+     */
+    private void adoptFromDefault(String name, Instant from, Instant to) {
+        jdbc.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbc.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                        + " WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO " + name
+                        + " SELECT * FROM moved",
+                OffsetDateTime.ofInstant(from, ZoneOffset.UTC), OffsetDateTime.ofInstant(to, ZoneOffset.UTC));
+        jdbc.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        log.info("Moved {} rows from {} into new partition {}", moved, DEFAULT_PARTITION, name);
+    }
+
+    private int dropExpired(List<Partition> existing, Instant now) {
+        Instant cutoff = now.minus(props.retentionOrDefault());
+        int n = 0;
+        for (Partition p : existing) {
+            if (p.to() == null || p.to().isAfter(cutoff)) continue;
+            List<Integer> pending = jdbc.queryForList(
+                    "SELECT 1 FROM " + p.name() + " WHERE published_at IS NULL LIMIT 1", Integer.class);
+            if (!pending.isEmpty()) {
+                log.warn("Outbox partition {} is past retention but still has unpublished rows; keeping it", p.name());
+                continue;
+            }
+            jdbc.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + p.name());
+            jdbc.execute("DROP TABLE " + p.name());
+            dropped.increment();
+            n++;
+            log.info("Dropped outbox partition {} (upper bound {})", p.name(), p.to());
+        }
+        return n;
+    }
+
+    private void purgeDefault(Instant now) {
+        int purged = jdbc.update("DELETE FROM " + DEFAULT_PARTITION
+                        + " WHERE published_at IS NOT NULL AND created_at < ?",
+                OffsetDateTime.ofInstant(now.minus(props.retentionOrDefault()), ZoneOffset.UTC));
+        if (purged > 0) log.info("Purged {} published rows from {}", purged, DEFAULT_PARTITION);
+    }
+
+    private LocalDate periodStart(LocalDate day) {
+        return switch (props.granularityOrDefault()) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private LocalDate next(LocalDate start) {
+        return switch (props.granularityOrDefault()) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private static Instant instant(OffsetDateTime t) {
+        return t == null ? null : t.toInstant();
+    }
+
+    // -------------------- Lifecycle --------------------
+
+    @Override
+    public void start() {
+        ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-partitions");
+            t.setDaemon(true);
+            return t;
+        });
+        s.scheduleWithFixedDelay(this::maintain, 0, props.intervalOrDefault().toMillis(), TimeUnit.MILLISECONDS);
+        this.scheduler = s;
+        log.info("Outbox partition maintenance started granularity={} premake={} retention={}",
+                props.granularityOrDefault(), props.premakeOrDefault(), props.retentionOrDefault());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService s = scheduler;
+        scheduler = null;
+        if (s != null) s.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
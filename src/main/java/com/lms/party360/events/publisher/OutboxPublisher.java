@@ -0,0 +1,310 @@
+package com.lms.party360.events.publisher;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.party360.config.OutboxProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OutboxPublisher
+ *
+ * Polling relay from outbox_event to Kafka, sharded into ordered lanes. A row's lane is
+ * (key_hash % partitions) % lanes, key_hash being the Kafka default partitioner's hash of msg_key, so every lane
+ * owns whole topic partitions and all events of one aggregate (or enqueueWithKey key) go through one lane.
+ * Lanes run in parallel, one thread each; each cycle of a lane:
+ *   1) claim, in a short transaction: take the lane's advisory lock (pg_try_advisory_xact_lock) and skip the
+ *      cycle if another pod holds it or still has a live lease (claimed_until) on one of the lane's rows;
+ *      otherwise claim up to batchSize pending rows in id order (FOR UPDATE SKIP LOCKED), lease them for
+ *      ackTimeout + {@link #LEASE_MARGIN}, and commit. The lease, not a held lock, is what keeps one owner per
+ *      lane cluster-wide (and with it per-key order) while the sends are in flight
+ *   2) send them asynchronously, with no transaction or connection held, different keys in parallel but each
+ *      key's rows one after another: a row is only sent once the previous row with the same key was acked,
+ *      then wait for the acks (bounded by ackTimeout)
+ *   3) in a second short transaction, mark (published_at) or delete the acked ids and drop the lease of the rest
+ * So the Kafka wait never holds back the vacuum horizon or a partition DETACH. A failed send stops its key's
+ * chain, and chains still waiting at ackTimeout are cancelled, so none of a key's later rows reaches Kafka
+ * before the failed (or unconfirmed) one is retried. Un-acked rows are retried next cycle, or once their lease
+ * expires if the pod died: delivery is at-least-once (an unconfirmed send may still land, followed by its
+ * retry), consumers dedupe by the outbox-id header. A full batch triggers the lane's next cycle immediately; an empty one waits
+ * pollInterval. outbox.relay.lane.lag reports, per lane, the age of the oldest row claimed in the last cycle
+ * (0 when the lane is drained, NaN while another pod owns it). Keep outbox.lanes equal on all pods.
+ */
+@Slf4j
+public class OutboxPublisher implements SmartLifecycle {
+
+    static final String H_OUTBOX_ID = "outbox-id";
+    static final String H_EVENT_TYPE = "event-type";
+    static final String H_CONTENT_TYPE = "content-type";
+    static final String H_AGGREGATE_ID = "aggregate-id";
+
+    /** Advisory lock namespace ("outb"); the second key is the lane number. */
+    private static final int LANE_LOCK_CLASS = 0x6f757462;
+
+    /** Lease beyond ackTimeout: covers the mark transaction after the last ack. */
+    static final Duration LEASE_MARGIN = Duration.ofSeconds(30);
+
+    private static final String LANE_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?, ?)";
+    private static final String LANE_LEASED_SQL = """
+            SELECT EXISTS (SELECT 1
+                             FROM outbox_event
+                            WHERE published_at IS NULL
+                              AND claimed_until > now()
+                              AND (key_hash % ?) % ? = ?)
+            """;
+    private static final String CLAIM_SQL = """
+            SELECT id, aggregate_id, msg_key, event_type, content_type, payload, headers::text, created_at
+              FROM outbox_event
+             WHERE published_at IS NULL
+               AND (key_hash % ?) % ? = ?
+             ORDER BY id
+             LIMIT ?
+               FOR UPDATE SKIP LOCKED
+            """;
+    private static final String LEASE_SQL =
+            "UPDATE outbox_event SET claimed_until = now() + make_interval(secs => ?) WHERE id = ANY(?)";
+    private static final String UNLEASE_SQL = "UPDATE outbox_event SET claimed_until = NULL WHERE id = ANY(?)";
+    private static final String MARK_SQL = "UPDATE outbox_event SET published_at = now() WHERE id = ANY(?)";
+    private static final String DELETE_SQL = "DELETE FROM outbox_event WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final KafkaTemplate<String, byte[]> kafka;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties props;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Timer cycle;
+    private final double[] laneLagSeconds;
+
+    private volatile ScheduledExecutorService scheduler;
+
+    public OutboxPublisher(JdbcTemplate jdbc, TransactionTemplate tx, KafkaTemplate<String, byte[]> kafka,
+                           ObjectMapper objectMapper, OutboxProperties props, MeterRegistry metrics) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.kafka = kafka;
+        this.objectMapper = objectMapper;
+        this.props = props;
+        this.published = metrics.counter("outbox.relay.events", "result", "published");
+        this.failed = metrics.counter("outbox.relay.events", "result", "failed");
+        this.cycle = Timer.builder("outbox.relay.batch").publishPercentileHistogram().register(metrics);
+        this.laneLagSeconds = new double[props.lanesOrDefault()];
+        for (int lane = 0; lane < laneLagSeconds.length; lane++) {
+            int l = lane;
+            Gauge.builder("outbox.relay.lane.lag", laneLagSeconds, a -> a[l])
+                    .tag("lane", Integer.toString(lane)).baseUnit("seconds")
+                    .description("Age of the oldest outbox row claimed by the lane's last cycle")
+                    .register(metrics);
+        }
+    }
+
+    /** createdAt is null for rows decoded from WAL (OutboxCdcRelay). */
+    record Row(long id, String aggregateId, String key, String type, String contentType,
+               byte[] payload, Map<String, String> headers, Instant createdAt) {}
+
+    // -------------------- Relay loop --------------------
+
+    void drain(int lane) {
+        try {
+            int claimed;
+            do {
+                claimed = cycle.record(() -> publishBatch(lane));
+            } while (claimed >= props.batchSizeOrDefault() && isRunning());
+        } catch (RuntimeException e) {
+            log.error("Outbox relay cycle failed lane={}; retrying in {}", lane, props.pollIntervalOrDefault(), e);
+        }
+    }
+
+    /** claim (tx) → send → ack (no tx) → mark/delete (tx) for a lane. Returns the number of rows claimed. */
+    int publishBatch(int lane) {
+        List<Row> rows = claim(lane);
+        if (rows.isEmpty()) return 0;
+        List<Long> acked = sendAndAwait(rows);
+        complete(rows, acked);
+        return rows.size();
+    }
+
+    /** Lane lock → live-lease check → claim → lease, committed before anything is sent. */
+    List<Row> claim(int lane) {
+        List<Row> rows = tx.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbc.queryForObject(LANE_LOCK_SQL, Boolean.class, LANE_LOCK_CLASS, lane))) {
+                laneLagSeconds[lane] = Double.NaN;
+                return List.<Row>of();
+            }
+            int partitions = kafka.partitionsFor(props.topicOrDefault()).size();
+            int lanes = laneLagSeconds.length;
+            if (Boolean.TRUE.equals(jdbc.queryForObject(LANE_LEASED_SQL, Boolean.class, partitions, lanes, lane))) {
+                // Another pod's batch is in flight (or a dead pod's lease has not expired yet).
+                laneLagSeconds[lane] = Double.NaN;
+                return List.<Row>of();
+            }
+            List<Row> claimed = jdbc.query(CLAIM_SQL, rowMapper(), partitions, lanes, lane,
+                    props.batchSizeOrDefault());
+            laneLagSeconds[lane] = claimed.isEmpty() ? 0
+                    : Math.max(0, (System.currentTimeMillis() - claimed.get(0).createdAt().toEpochMilli()) / 1000.0);
+            if (!claimed.isEmpty()) {
+                long leaseSeconds = props.ackTimeoutOrDefault().plus(LEASE_MARGIN).toSeconds();
+                jdbc.update(LEASE_SQL, ps -> {
+                    ps.setLong(1, leaseSeconds);
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids(claimed).toArray()));
+                });
+            }
+            return claimed;
+        });
+        return rows == null ? List.of() : rows;
+    }
+
+    List<Long> sendAndAwait(List<Row> rows) {
+        String topic = props.topicOrDefault();
+        List<CompletableFuture<?>> sends = new ArrayList<>(rows.size());
+        Map<String, CompletableFuture<?>> lastByKey = new HashMap<>();
+        for (Row r : rows) {
+            CompletableFuture<?> prev = r.key() == null ? null : lastByKey.get(r.key());
+            CompletableFuture<?> send = prev == null
+                    ? kafka.send(toRecord(topic, r))
+                    : prev.thenCompose(ack -> kafka.send(toRecord(topic, r)));
+            if (r.key() != null) lastByKey.put(r.key(), send);
+            sends.add(send);
+        }
+
+        long deadline = System.nanoTime() + props.ackTimeoutOrDefault().toNanos();
+        List<Long> acked = new ArrayList<>(rows.size());
+        Set<String> failedKeys = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row r = rows.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                sends.get(i).get(remaining, TimeUnit.NANOSECONDS);
+                if (r.key() == null || !failedKeys.contains(r.key())) acked.add(r.id());
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if (r.key() == null || failedKeys.add(r.key())) {
+                    log.warn("Outbox send failed id={} type={}; will retry with the key's later rows", r.id(),
+                            r.type(), e);
+                }
+            }
+        }
+        // Nothing more may be sent for this batch: rows not yet handed to the producer stay unsent.
+        sends.forEach(f -> f.cancel(false));
+        published.increment(acked.size());
+        failed.increment(rows.size() - acked.size());
+        return acked;
+    }
+
+    /** Marks/deletes the acked rows and releases the lease on the rest, so they are retried next cycle. */
+    void complete(List<Row> rows, List<Long> acked) {
+        Set<Long> done = new HashSet<>(acked);
+        List<Long> retry = ids(rows).stream().filter(id -> !done.contains(id)).toList();
+        String sql = props.cleanupOrDefault() == OutboxProperties.Cleanup.DELETE ? DELETE_SQL : MARK_SQL;
+        tx.executeWithoutResult(status -> {
+            updateIds(sql, acked);
+            updateIds(UNLEASE_SQL, retry);
+        });
+    }
+
+    private void updateIds(String sql, List<Long> ids) {
+        if (ids.isEmpty()) return;
+        jdbc.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())));
+    }
+
+    private static List<Long> ids(List<Row> rows) {
+        return rows.stream().map(Row::id).toList();
+    }
+
+    /** Shared with OutboxCdcRelay so both relay modes publish identical records. */
+    static ProducerRecord<String, byte[]> toRecord(String topic, Row r) {
+        ProducerRecord<String, byte[]> rec = new ProducerRecord<>(topic, r.key(), r.payload());
+        rec.headers()
+                .add(new RecordHeader(H_OUTBOX_ID, Long.toString(r.id()).getBytes(StandardCharsets.UTF_8)))
+                .add(new RecordHeader(H_EVENT_TYPE, r.type().getBytes(StandardCharsets.UTF_8)))
+                .add(new RecordHeader(H_CONTENT_TYPE, r.contentType().getBytes(StandardCharsets.UTF_8)))
+                .add(new RecordHeader(H_AGGREGATE_ID, r.aggregateId().getBytes(StandardCharsets.UTF_8)));
+        r.headers().forEach((k, v) -> rec.headers().add(new RecordHeader(k, v.getBytes(StandardCharsets.UTF_8))));
+        return rec;
+    }
+
+    private RowMapper<Row> rowMapper() {
+        return (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getBytes(6), parseHeaders(objectMapper, rs.getString(7)),
+                rs.getObject(8, OffsetDateTime.class).toInstant());
+    }
+
+    static Map<String, String> parseHeaders(ObjectMapper objectMapper, String json) {
+        try {
+            return json == null ? Map.of() : objectMapper.readValue(json, new TypeReference<Map<String, String>>() {});
+        } catch (Exception e) {
+            log.warn("Unreadable outbox headers; publishing without them", e);
+            return Map.of();
+        }
+    }
+
+    // -------------------- Lifecycle --------------------
+
+    @Override
+    public void start() {
+        int lanes = laneLagSeconds.length;
+        AtomicInteger threads = new AtomicInteger();
+        ScheduledExecutorService s = Executors.newScheduledThreadPool(lanes, r -> {
+            Thread t = new Thread(r, "outbox-relay-" + threads.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        long delay = props.pollIntervalOrDefault().toMillis();
+        for (int lane = 0; lane < lanes; lane++) {
+            int l = lane;
+            s.scheduleWithFixedDelay(() -> drain(l), delay, delay, TimeUnit.MILLISECONDS);
+        }
+        this.scheduler = s;
+        log.info("Outbox relay started topic={} lanes={} batchSize={} cleanup={}",
+                props.topicOrDefault(), lanes, props.batchSizeOrDefault(), props.cleanupOrDefault());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService s = scheduler;
+        scheduler = null;
+        if (s == null) return;
+        s.shutdown();
+        try {
+            if (!s.awaitTermination(props.ackTimeoutOrDefault().toMillis(), TimeUnit.MILLISECONDS)) s.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            s.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -3,16 +3,27 @@ package com.lms.party360.events.publisher;
 import com.lms.party360.util.Headers;
 import lombok.NonNull;
 
+import java.util.List;
+
 // Optional: extend your existing port if needed
 public interface OutboxWriter {
     void enqueue(@NonNull String aggregateId, @NonNull String type,
                  @NonNull Object payload, @NonNull Headers headers);
 
-    default void enqueueWithKey(@NonNull String aggregateId, @NonNull String key,
-                                @NonNull String type, @NonNull Object payload,
-                                @NonNull Headers headers) {
-        // adapter; implemented in OutboxWriterJdbc
-        throw new UnsupportedOperationException();
+    /** As {@link #enqueue}, but with an explicit Kafka record key instead of the aggregate id. */
+    void enqueueWithKey(@NonNull String aggregateId, @NonNull String key,
+                        @NonNull String type, @NonNull Object payload,
+                        @NonNull Headers headers);
+
+    /** Stages a whole chunk of events (bulk paths); implementations should write them in one statement. */
+    default void enqueueBatch(@NonNull List<Event> events) {
+        for (Event e : events) {
+            if (e.key() == null) enqueue(e.aggregateId(), e.type(), e.payload(), e.headers());
+            else enqueueWithKey(e.aggregateId(), e.key(), e.type(), e.payload(), e.headers());
+        }
     }
+
+    record Event(@NonNull String aggregateId, String key, @NonNull String type,
+                 @NonNull Object payload, @NonNull Headers headers) {}
 }
 
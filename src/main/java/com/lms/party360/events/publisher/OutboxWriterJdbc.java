@@ -0,0 +1,117 @@
+package com.lms.party360.events.publisher;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.party360.util.Headers;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OutboxWriterJdbc
+ *
+ * Stages events in outbox_event inside the caller's transaction (Propagation.MANDATORY: an event written
+ * outside the aggregate's transaction would defeat the outbox). Batches become multi-row INSERTs of up to
+ * {@value #ROWS_PER_STATEMENT} rows, one round trip each; the relay publishes after commit. Each row carries
+ * key_hash, the Kafka default partitioner's hash of msg_key, so the polling relay can shard pending rows by
+ * target partition in SQL. Payloads are JSON-encoded unless already serialized ({@link EncodedPayload}, e.g.
+ * Avro from EventPayloadFactory), which are stored verbatim with their own content type.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriterJdbc implements OutboxWriter {
+
+    static final String CONTENT_TYPE_JSON = "application/json";
+
+    /** 7 binds per row; stays far below the 32767/65535 bind limits of the Postgres driver. */
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final String INSERT_PREFIX =
+            "INSERT INTO outbox_event (aggregate_id, msg_key, key_hash, event_type, content_type, payload, headers) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?::jsonb)";
+    private static final String FULL_INSERT =
+            INSERT_PREFIX + String.join(", ", Collections.nCopies(ROWS_PER_STATEMENT, ROW));
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(@NonNull String aggregateId, @NonNull String type,
+                        @NonNull Object payload, @NonNull Headers headers) {
+        insert(List.of(new Event(aggregateId, null, type, payload, headers)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueWithKey(@NonNull String aggregateId, @NonNull String key,
+                               @NonNull String type, @NonNull Object payload,
+                               @NonNull Headers headers) {
+        insert(List.of(new Event(aggregateId, key, type, payload, headers)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueBatch(@NonNull List<Event> events) {
+        for (int from = 0; from < events.size(); from += ROWS_PER_STATEMENT) {
+            insert(events.subList(from, Math.min(from + ROWS_PER_STATEMENT, events.size())));
+        }
+    }
+
+    private void insert(List<Event> rows) {
+        if (rows.isEmpty()) return;
+        String sql = rows.size() == ROWS_PER_STATEMENT ? FULL_INSERT
+                : INSERT_PREFIX + String.join(", ", Collections.nCopies(rows.size(), ROW));
+        List<Object> args = new ArrayList<>(rows.size() * 7);
+        for (Event e : rows) {
+            String key = e.key() != null ? e.key() : e.aggregateId();
+            args.add(e.aggregateId());
+            args.add(key);
+            args.add(keyHash(key));
+            args.add(e.type());
+            if (e.payload() instanceof EncodedPayload p) {
+                Map<String, String> headers = new LinkedHashMap<>(e.headers().asMap());
+                headers.putAll(p.headers());
+                args.add(p.contentType());
+                args.add(p.bytes());
+                args.add(jsonText(headers));
+            } else {
+                args.add(CONTENT_TYPE_JSON);
+                args.add(json(e.payload()));
+                args.add(jsonText(e.headers().asMap()));
+            }
+        }
+        jdbc.update(sql, args.toArray());
+    }
+
+    /** Same hash as Kafka's default partitioner for keyed records: partition = keyHash % partitions. */
+    static int keyHash(String key) {
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private byte[] json(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + payload.getClass().getName(), e);
+        }
+    }
+
+    private String jsonText(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox headers are not serializable", e);
+        }
+    }
+}
@@ -1,4 +1,71 @@
 package com.lms.party360.events.publisher;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.party360.util.Headers;
+import lombok.NonNull;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * PartyEventsProducer
+ *
+ * Direct publisher for party.v1.* events where there is no aggregate transaction to join (replays, backfills,
+ * re-publication). Transactional paths stage through the outbox instead. Payloads from EventPayloadFactory are
+ * published as-is (Avro bytes + schema-id header); anything else is JSON-encoded. Records carry the same
+ * headers as relayed ones, minus outbox-id.
+ */
 public class PartyEventsProducer {
+
+    private final KafkaTemplate<String, byte[]> kafka;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    public PartyEventsProducer(KafkaTemplate<String, byte[]> kafka, ObjectMapper objectMapper, String topic) {
+        this.kafka = kafka;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+    }
+
+    public CompletableFuture<SendResult<String, byte[]>> publish(@NonNull String aggregateId, @NonNull String type,
+                                                                 @NonNull Object payload, @NonNull Headers headers) {
+        String contentType;
+        byte[] bytes;
+        Map<String, String> extra;
+        if (payload instanceof EncodedPayload p) {
+            contentType = p.contentType();
+            bytes = p.bytes();
+            extra = p.headers();
+        } else {
+            contentType = OutboxWriterJdbc.CONTENT_TYPE_JSON;
+            bytes = json(payload);
+            extra = Map.of();
+        }
+        ProducerRecord<String, byte[]> rec = new ProducerRecord<>(topic, aggregateId, bytes);
+        rec.headers()
+                .add(header(OutboxPublisher.H_EVENT_TYPE, type))
+                .add(header(OutboxPublisher.H_CONTENT_TYPE, contentType))
+                .add(header(OutboxPublisher.H_AGGREGATE_ID, aggregateId));
+        headers.asMap().forEach((k, v) -> rec.headers().add(header(k, v)));
+        extra.forEach((k, v) -> rec.headers().add(header(k, v)));
+        return kafka.send(rec);
+    }
+
+    private static RecordHeader header(String name, String value) {
+        return new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] json(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not serializable: " + payload.getClass().getName(), e);
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package com.lms.party360.events.publisher;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PgOutputDecoder
+ *
+ * Minimal decoder for the pgoutput logical replication protocol (proto_version 1, text tuples). Only what the
+ * outbox relay needs is decoded: Begin, Commit, Relation and Insert. Everything else (Update, Delete, Truncate,
+ * Origin, Type) is surfaced as {@link Other} and ignored by the relay. Relation messages are cached so Insert
+ * tuples can be returned as column-name → text-value maps. Not thread-safe: one decoder per stream.
+ */
+final class PgOutputDecoder {
+
+    sealed interface Message permits Begin, Commit, Relation, Insert, Other {}
+
+    record Begin(long finalLsn, int xid) implements Message {}
+
+    record Commit(long commitLsn, long endLsn) implements Message {}
+
+    record Relation(int oid, String namespace, String name, List<String> columns) implements Message {}
+
+    record Insert(int relationId, List<String> values) implements Message {}
+
+    record Other(char tag) implements Message {}
+
+    private final Map<Integer, Relation> relations = new HashMap<>();
+
+    Message decode(ByteBuffer buf) {
+        char tag = (char) buf.get();
+        return switch (tag) {
+            case 'B' -> {
+                long finalLsn = buf.getLong();
+                buf.getLong();                               // commit timestamp
+                yield new Begin(finalLsn, buf.getInt());
+            }
+            case 'C' -> {
+                buf.get();                                   // flags (unused)
+                long commitLsn = buf.getLong();
+                long endLsn = buf.getLong();
+                buf.getLong();                               // commit timestamp
+                yield new Commit(commitLsn, endLsn);
+            }
+            case 'R' -> relation(buf);
+            case 'I' -> {
+                int relationId = buf.getInt();
+                buf.get();                                   // 'N' (new tuple)
+                yield new Insert(relationId, tuple(buf));
+            }
+            default -> new Other(tag);
+        };
+    }
+
+    /** True when the insert targets the named table (its Relation message must have been seen first). */
+    boolean isTable(Insert insert, String table) {
+        Relation r = relations.get(insert.relationId());
+        return r != null && r.name().equals(table);
+    }
+
+    /** Column name → text value (null for SQL NULL / unchanged TOAST) for a decoded insert. */
+    Map<String, String> row(Insert insert) {
+        Relation r = relations.get(insert.relationId());
+        if (r == null) throw new IllegalStateException("Insert for unknown relation " + insert.relationId());
+        Map<String, String> row = new LinkedHashMap<>(r.columns().size() * 2);
+        for (int i = 0; i < r.columns().size() && i < insert.values().size(); i++) {
+            row.put(r.columns().get(i), insert.values().get(i));
+        }
+        return row;
+    }
+
+    private Relation relation(ByteBuffer buf) {
+        int oid = buf.getInt();
+        String namespace = cstring(buf);
+        String name = cstring(buf);
+        buf.get();                                           // replica identity setting
+        int n = Short.toUnsignedInt(buf.getShort());
+        List<String> columns = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            buf.get();                                       // flags (1 = part of key)
+            columns.add(cstring(buf));
+            buf.getInt();                                    // type oid
+            buf.getInt();                                    // type modifier
+        }
+        Relation r = new Relation(oid, namespace, name, List.copyOf(columns));
+        relations.put(oid, r);
+        return r;
+    }
+
+    private static List<String> tuple(ByteBuffer buf) {
+        int n = Short.toUnsignedInt(buf.getShort());
+        List<String> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            char kind = (char) buf.get();
+            switch (kind) {
+                case 'n', 'u' -> values.add(null);
+                case 't' -> {
+                    byte[] bytes = new byte[buf.getInt()];
+                    buf.get(bytes);
+                    values.add(new String(bytes, StandardCharsets.UTF_8));
+                }
+                default -> throw new IllegalStateException("Unsupported tuple column kind '" + kind + "'");
+            }
+        }
+        return values;
+    }
+
+    private static String cstring(ByteBuffer buf) {
+        int start = buf.position();
+        while (buf.get() != 0) { /* scan to NUL */ }
+        byte[] bytes = new byte[buf.position() - start - 1];
+        buf.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** bytea text output (hex format, {@code \x0a0b…}) → bytes. */
+    static byte[] bytea(String text) {
+        if (text == null) return null;
+        if (!text.startsWith("\\x")) throw new IllegalStateException("Expected hex bytea output (bytea_output=hex)");
+        int n = (text.length() - 2) / 2;
+        byte[] out = new byte[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = (byte) Integer.parseInt(text, 2 + 2 * i, 4 + 2 * i, 16);
+        }
+        return out;
+    }
+}
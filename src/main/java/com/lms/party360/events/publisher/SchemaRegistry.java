@@ -0,0 +1,16 @@
+package com.lms.party360.events.publisher;
+
+import org.apache.avro.Schema;
+
+/**
+ * Schema-id lookup for Avro event payloads. Producers register once per schema and cache the id
+ * (EventPayloadFactory); consumers resolve the writer schema from the schema-id record header.
+ */
+public interface SchemaRegistry {
+
+    /** Registers (or finds) {@code schema} under {@code subject} and returns its id. */
+    int register(String subject, Schema schema);
+
+    /** Writer schema for an id seen on a record; throws IllegalArgumentException when unknown. */
+    Schema byId(int id);
+}
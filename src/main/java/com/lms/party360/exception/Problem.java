@@ -1,5 +1,12 @@
 package com.lms.party360.exception;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.ErrorResponseException;
+
+import java.time.Duration;
+
 public class Problem extends RuntimeException {
 
     public static Throwable badRequest(String event, String errorMessage) {
@@ -14,4 +21,17 @@ public class Problem extends RuntimeException {
 
     public static Exception upstream(String s, String vaultRequestFailed) {
     }
+
+    /**
+     * 503 + Retry-After for load shedding: clients and load balancers back off and retry instead of
+     * counting a server fault. Retry-After is whole seconds, at least 1.
+     */
+    public static ErrorResponseException unavailable(String code, String message, Duration retryAfter) {
+        ProblemDetail detail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, message);
+        detail.setTitle(code);
+        ErrorResponseException ex = new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE, detail, null);
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        ex.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return ex;
+    }
 }
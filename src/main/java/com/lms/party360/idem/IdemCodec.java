@@ -1,25 +1,65 @@
 package com.lms.party360.idem;
 
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Frames idempotency payloads as {@code [codecId][flags][body]} and picks the first {@link PayloadCodec}
+ * that supports the value. Bodies at or above {@code compressMinBytes} are LZ4-compressed
+ * (flag bit 0, followed by the u32 original length).
+ */
 public final class IdemCodec {
 
-    private final ObjectMapper om;
+    private static final byte FLAG_LZ4 = 0x01;
 
-    public IdemCodec(ObjectMapper om) {
-        // Enable default typing ONLY for this dedicated mapper to store type info safely.
-        this.om = om.copy()
-                .activateDefaultTyping(om.getPolymorphicTypeValidator(),
-                        ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    private final List<PayloadCodec> codecs;
+    private final Map<Byte, PayloadCodec> byId = new HashMap<>();
+    private final int compressMinBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param codecs           in preference order; the last one should accept any value (e.g. JSON)
+     * @param compressMinBytes 0 disables compression
+     */
+    public IdemCodec(List<PayloadCodec> codecs, int compressMinBytes) {
+        if (codecs.isEmpty()) throw new IllegalArgumentException("at least one PayloadCodec is required");
+        this.codecs = List.copyOf(codecs);
+        for (PayloadCodec c : this.codecs) {
+            if (byId.putIfAbsent(c.id(), c) != null) {
+                throw new IllegalArgumentException("duplicate PayloadCodec id " + c.id());
+            }
+        }
+        this.compressMinBytes = compressMinBytes;
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
     }
 
     public byte[] serialize(Object value) {
         try {
-            return om.writeValueAsBytes(value);
+            PayloadCodec codec = codecs.stream().filter(c -> c.supports(value)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No PayloadCodec for " + value.getClass()));
+            byte[] body = codec.encode(value);
+
+            if (compressMinBytes > 0 && body.length >= compressMinBytes) {
+                byte[] packed = new byte[compressor.maxCompressedLength(body.length)];
+                int n = compressor.compress(body, 0, body.length, packed, 0);
+                if (n < body.length) {
+                    return ByteBuffer.allocate(2 + 4 + n)
+                            .put(codec.id()).put(FLAG_LZ4).putInt(body.length).put(packed, 0, n)
+                            .array();
+                }
+            }
+            return ByteBuffer.allocate(2 + body.length).put(codec.id()).put((byte) 0).put(body).array();
         } catch (Exception e) {
             throw new IllegalStateException("Failed to serialize idempotency payload", e);
         }
@@ -28,7 +68,20 @@ public final class IdemCodec {
     @SuppressWarnings("unchecked")
     public <T> T deserialize(byte[] bytes) {
         try {
-            return (T) om.readValue(bytes, Object.class);
+            if (bytes == null || bytes.length < 2) throw new IllegalArgumentException("truncated payload");
+            PayloadCodec codec = byId.get(bytes[0]);
+            if (codec == null) throw new IllegalArgumentException("unknown PayloadCodec id " + bytes[0]);
+
+            byte[] body;
+            if ((bytes[1] & FLAG_LZ4) != 0) {
+                int rawLen = ByteBuffer.wrap(bytes, 2, 4).getInt();
+                body = new byte[rawLen];
+                decompressor.decompress(bytes, 6, body, 0, rawLen);
+            } else {
+                body = new byte[bytes.length - 2];
+                System.arraycopy(bytes, 2, body, 0, body.length);
+            }
+            return (T) codec.decode(body);
         } catch (Exception e) {
             throw new IllegalStateException("Failed to deserialize idempotency payload", e);
         }
@@ -42,4 +95,3 @@ public final class IdemCodec {
         return s.getBytes(StandardCharsets.UTF_8);
     }
 }
-
@@ -0,0 +1,102 @@
+package com.lms.party360.idem;
+
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared pub/sub listener that wakes PENDING waiters as soon as the leader completes.
+ *
+ * Sharded pub/sub (Redis 7+): COMPLETE_SUCCESS does SPUBLISH on {@code idem:done:<redisKey>} atomically with
+ * the DONE transition. The channel carries the key's hash tag, so in a cluster the message stays on the
+ * key's shard and reaches only pods that SSUBSCRIBEd to that one key, instead of every node and every pod.
+ * A key is subscribed while it has waiters; they share a single future, which stays registered until the
+ * completion arrives or the last of those waiters gives up.
+ */
+final class IdemCompletionListener implements AutoCloseable {
+
+    static final String CHANNEL_PREFIX = "idem:done:";
+
+    private final StatefulRedisPubSubConnection<String, String> conn;
+    private final ConcurrentHashMap<String, Waiting> waiters = new ConcurrentHashMap<>();
+
+    /** The shared future of one key and how many waiters still hold it; mutated only inside map compute. */
+    private static final class Waiting {
+        final CompletableFuture<String> signal = new CompletableFuture<>();
+        CompletableFuture<Void> subscribed;
+        int holders;
+    }
+
+    /** One waiter's handle: the completion future and the SSUBSCRIBE it depends on. */
+    record Signal(String redisKey, CompletableFuture<String> done, CompletableFuture<Void> subscribed) {}
+
+    IdemCompletionListener(StatefulRedisPubSubConnection<String, String> conn) {
+        this.conn = conn;
+        // Shard subscriptions live on the owning node's connection; surface their messages here.
+        if (conn instanceof StatefulRedisClusterPubSubConnection<String, String> cluster) {
+            cluster.setNodeMessagePropagation(true);
+        }
+        this.conn.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void smessage(String channel, String message) {
+                if (!channel.startsWith(CHANNEL_PREFIX)) return;
+                String redisKey = channel.substring(CHANNEL_PREFIX.length());
+                Waiting w = waiters.remove(redisKey);
+                if (w != null) {
+                    w.signal.complete(message);
+                    unsubscribe(redisKey);
+                }
+            }
+        });
+    }
+
+    static String channel(String redisKey) {
+        return CHANNEL_PREFIX + redisKey;
+    }
+
+    /**
+     * Register interest BEFORE checking status so a completion in between is never lost: the first waiter of
+     * a key subscribes, and callers check status only once {@link Signal#subscribed()} is done.
+     */
+    Signal await(String redisKey) {
+        Waiting w = waiters.compute(redisKey, (k, cur) -> {
+            Waiting held = cur;
+            if (held == null) {
+                held = new Waiting();
+                held.subscribed = conn.async().ssubscribe(channel(k)).toCompletableFuture();
+            }
+            held.holders++;
+            return held;
+        });
+        return new Signal(redisKey, w.signal, w.subscribed);
+    }
+
+    /**
+     * Every {@link #await} is paired with one release (timeout / early exit / done). The registration is
+     * dropped, and the key unsubscribed, only when its last holder leaves, so one waiter giving up never
+     * makes the others miss the signal.
+     */
+    void release(Signal s) {
+        boolean[] last = {false};
+        waiters.computeIfPresent(s.redisKey(), (k, w) -> {
+            if (w.signal != s.done() || --w.holders > 0) return w;
+            last[0] = true;
+            return null;
+        });
+        if (last[0]) unsubscribe(s.redisKey());
+    }
+
+    /** Same connection as the SSUBSCRIBE, so a re-subscribe for a new waiter is always ordered after it. */
+    private void unsubscribe(String redisKey) {
+        conn.async().sunsubscribe(channel(redisKey));
+    }
+
+    @Override
+    public void close() {
+        waiters.clear();
+        try { conn.close(); } catch (Exception ignored) {}
+    }
+}
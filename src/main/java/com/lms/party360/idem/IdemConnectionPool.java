@@ -0,0 +1,134 @@
+package com.lms.party360.idem;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.cluster.api.sync.RedisClusterCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of multiplexed Lettuce connections (String keys, byte[] values) used round-robin by the
+ * idempotency stores, against either a standalone primary or a Redis Cluster.
+ *
+ * Lettuce connections are thread-safe and pipeline concurrent commands, so "pooling" here means spreading
+ * load over N sockets / event-loop threads rather than borrowing exclusively. Every command is timed into
+ * {@code idempotency.redis.latency} tagged with the connection index and operation.
+ */
+public final class IdemConnectionPool implements AutoCloseable {
+
+    private static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+    private final List<Lane> lanes;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final Supplier<StatefulRedisPubSubConnection<String, String>> pubSub;
+    private final MeterRegistry metrics;
+
+    private IdemConnectionPool(List<Lane> lanes,
+                               Supplier<StatefulRedisPubSubConnection<String, String>> pubSub,
+                               MeterRegistry metrics) {
+        this.lanes = List.copyOf(lanes);
+        this.pubSub = pubSub;
+        this.metrics = metrics;
+    }
+
+    public static IdemConnectionPool standalone(RedisClient client, int size, MeterRegistry metrics) {
+        List<Lane> lanes = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, size); i++) {
+            StatefulRedisConnection<String, byte[]> c = client.connect(CODEC);
+            lanes.add(new Lane(i, c, c.sync(), c.reactive()));
+        }
+        return new IdemConnectionPool(lanes, () -> client.connectPubSub(StringCodec.UTF8), metrics);
+    }
+
+    public static IdemConnectionPool cluster(RedisClusterClient client, int size, MeterRegistry metrics) {
+        List<Lane> lanes = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, size); i++) {
+            StatefulRedisClusterConnection<String, byte[]> c = client.connect(CODEC);
+            lanes.add(new Lane(i, c, c.sync(), c.reactive()));
+        }
+        // Completion signals use sharded pub/sub: SSUBSCRIBE on this connection is routed to the node that
+        // owns the channel's slot, so a SPUBLISH never leaves its shard.
+        return new IdemConnectionPool(lanes, () -> client.connectPubSub(StringCodec.UTF8), metrics);
+    }
+
+    /** Blocking command on the next lane, timed per connection. */
+    public <R> R sync(String op, Function<RedisClusterCommands<String, byte[]>, R> call) {
+        Lane lane = next();
+        long t0 = System.nanoTime();
+        try {
+            return call.apply(lane.sync);
+        } finally {
+            record(lane, op, System.nanoTime() - t0);
+        }
+    }
+
+    /** Reactive command on the next lane, timed from subscription to termination. */
+    public <R> Flux<R> reactive(String op, Function<RedisClusterReactiveCommands<String, byte[]>, Publisher<R>> call) {
+        return Flux.defer(() -> {
+            Lane lane = next();
+            long t0 = System.nanoTime();
+            return Flux.from(call.apply(lane.reactive))
+                    .doFinally(s -> record(lane, op, System.nanoTime() - t0));
+        });
+    }
+
+    /** Any lane's blocking commands, for one-off startup work (e.g. SCRIPT LOAD). */
+    RedisClusterCommands<String, byte[]> anySync() {
+        return lanes.get(0).sync;
+    }
+
+    StatefulRedisPubSubConnection<String, String> connectPubSub() {
+        return pubSub.get();
+    }
+
+    private Lane next() {
+        return lanes.get(Math.floorMod(cursor.getAndIncrement(), lanes.size()));
+    }
+
+    private void record(Lane lane, String op, long nanos) {
+        if (metrics == null) return;
+        lane.timers.computeIfAbsent(op, o -> Timer.builder("idempotency.redis.latency")
+                        .tag("conn", String.valueOf(lane.index))
+                        .tag("op", o)
+                        .publishPercentileHistogram()
+                        .register(metrics))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        for (Lane lane : lanes) {
+            try { lane.conn.close(); } catch (Exception ignored) {}
+        }
+    }
+
+    private record Lane(int index,
+                        StatefulConnection<String, byte[]> conn,
+                        RedisClusterCommands<String, byte[]> sync,
+                        RedisClusterReactiveCommands<String, byte[]> reactive,
+                        Map<String, Timer> timers) {
+        Lane(int index, StatefulConnection<String, byte[]> conn,
+             RedisClusterCommands<String, byte[]> sync, RedisClusterReactiveCommands<String, byte[]> reactive) {
+            this(index, conn, sync, reactive, new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.lms.party360.idem;
+
+import java.util.UUID;
+
+/**
+ * Idempotency keyspace: {@code idem:<opcode>:{<uuid>}}.
+ *
+ * The hash tag pins every key (and any future companion key for the same request) to one cluster slot,
+ * while the random UUID spreads requests evenly over all slots / primaries.
+ */
+final class IdemKeys {
+
+    private IdemKeys() {}
+
+    static String redisKey(String opcode, UUID key) {
+        return "idem:" + opcode + ":{" + key + "}";
+    }
+}
@@ -1,11 +1,23 @@
 package com.lms.party360.idem;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lms.party360.api.model.response.CreatePartyResponse;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableConfigurationProperties(IdempotencyProperties.class)
@@ -20,8 +32,63 @@ public class IdempotencyConfig {
     }
 
     @Bean
-    public IdemCodec idemCodec(ObjectMapper objectMapper) {
-        return new IdemCodec(objectMapper);
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "idempotency.redis", name = "mode", havingValue = "CLUSTER")
+    public RedisClusterClient redisClusterClient(IdempotencyProperties props) {
+        List<String> nodes = props.redisOrDefaults().nodes();
+        List<RedisURI> seeds = (nodes == null || nodes.isEmpty())
+                ? List.of(RedisURI.create(System.getenv().getOrDefault("REDIS_URL", "redis://localhost:6379")))
+                : nodes.stream().map(RedisURI::create).toList();
+        RedisClusterClient client = RedisClusterClient.create(seeds);
+        // Follow slot migrations / failovers without a restart.
+        client.setOptions(ClusterClientOptions.builder()
+                .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                        .enableAllAdaptiveRefreshTriggers()
+                        .enablePeriodicRefresh(Duration.ofSeconds(30))
+                        .build())
+                .build());
+        return client;
+    }
+
+    @Bean
+    public IdemConnectionPool idemConnectionPool(IdempotencyProperties props,
+                                                 ObjectProvider<RedisClient> standalone,
+                                                 ObjectProvider<RedisClusterClient> cluster,
+                                                 ObjectProvider<MeterRegistry> metrics) {
+        IdempotencyProperties.Redis redis = props.redisOrDefaults();
+        return redis.mode() == IdempotencyProperties.Redis.Mode.CLUSTER
+                ? IdemConnectionPool.cluster(cluster.getObject(), redis.poolSize(), metrics.getIfAvailable())
+                : IdemConnectionPool.standalone(standalone.getObject(), redis.poolSize(), metrics.getIfAvailable());
     }
-}
 
+    /** One pub/sub connection per JVM (per-key shard subscriptions), shared by the blocking and reactive stores. */
+    @Bean
+    IdemCompletionListener idemCompletionListener(IdemConnectionPool pool) {
+        return new IdemCompletionListener(pool.connectPubSub());
+    }
+
+    /** Binary record tags are persisted in Redis — append only. */
+    @Bean
+    @ConditionalOnMissingBean
+    public RecordPayloadCodec recordPayloadCodec() {
+        return new RecordPayloadCodec()
+                .register(1, CreatePartyResponse.class);
+    }
+
+    @Bean
+    public IdemCodec idemCodec(RecordPayloadCodec records, ObjectMapper objectMapper, IdempotencyProperties props) {
+        // Compact binary first; JSON only for types nobody registered.
+        return new IdemCodec(List.of(records, new JsonPayloadCodec(objectMapper)), props.compressMinBytes());
+    }
+
+    /** Handlers see the near-cache decorator; Redis stays the source of truth behind it. */
+    @Bean
+    @Primary
+    public IdempotencyStore idempotencyStore(IdempotencyStoreRedis redisStore,
+                                             IdemCodec codec,
+                                             IdempotencyProperties props,
+                                             ObjectProvider<MeterRegistry> metrics) {
+        if (props.nearCacheMaxBytes() <= 0) return redisStore;
+        return new NearCacheIdempotencyStore(redisStore, codec, props, metrics.getIfAvailable());
+    }
+}
@@ -2,6 +2,8 @@ package com.lms.party360.idem;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.List;
+
 @ConfigurationProperties(prefix = "idempotency")
 public record IdempotencyProperties(
         long ttlSeconds,            // e.g., 172800 (48h)
@@ -9,9 +11,29 @@ public record IdempotencyProperties(
         int  maxPayloadBytes,       // e.g., 262144 (256 KiB)
         long waitMaxMillis,         // e.g., 1500
         long waitBackoffMinMillis,  // e.g., 25
-        long waitBackoffMaxMillis   // e.g., 100
+        long waitBackoffMaxMillis,  // e.g., 100
+        long waitFallbackPollMillis, // e.g., 250 (status poll only if the pub/sub signal is missed)
+        int  compressMinBytes,      // e.g., 1024 (LZ4 payloads at/above this size; 0 disables)
+        long nearCacheMaxBytes,     // e.g., 16777216 (16 MiB local DONE cache; 0 disables)
+        Redis redis                 // topology + connection pool
 ) {
     public static IdempotencyProperties defaults() {
-        return new IdempotencyProperties(172800, 30, 262_144, 1500, 25, 100);
+        return new IdempotencyProperties(172800, 30, 262_144, 1500, 25, 100, 250, 1024, 16L << 20, Redis.defaults());
+    }
+
+    public Redis redisOrDefaults() {
+        return redis == null ? Redis.defaults() : redis;
+    }
+
+    public record Redis(
+            Mode mode,              // STANDALONE (REDIS_URL) or CLUSTER (seed nodes below)
+            List<String> nodes,     // e.g., [redis://redis-0:6379, redis://redis-1:6379]
+            int poolSize            // multiplexed connections per store, e.g., 4
+    ) {
+        public enum Mode { STANDALONE, CLUSTER }
+
+        public static Redis defaults() {
+            return new Redis(Mode.STANDALONE, List.of(), 1);
+        }
     }
 }
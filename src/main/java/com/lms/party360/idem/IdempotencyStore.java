@@ -11,4 +11,15 @@ public interface IdempotencyStore {
      * - If PENDING by another request -> wait (bounded), then reuse or execute if cleared.
      */
     <T> T execute(String opcode, UUID key, byte[] requestHash, Supplier<T> supplier, Runnable onHit) throws Exception;
+
+    /**
+     * Same as {@link #execute}, plus the System.nanoTime() deadline at which the authoritative record expires,
+     * so a local cache in front of the store never outlives it. Null when the store cannot tell.
+     */
+    default <T> Completed<T> executeTracked(String opcode, UUID key, byte[] requestHash, Supplier<T> supplier,
+                                            Runnable onHit) throws Exception {
+        return new Completed<>(execute(opcode, key, requestHash, supplier, onHit), null);
+    }
+
+    record Completed<T>(T value, Long expiresAtNanos) {}
 }
@@ -1,66 +1,83 @@
 package com.lms.party360.idem;
 
 import com.lms.party360.exception.Problem;
-import io.lettuce.core.RedisClient;
 import io.lettuce.core.ScriptOutputType;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 @Component
-public class IdempotencyStoreRedis implements IdempotencyStore, AutoCloseable {
+public class IdempotencyStoreRedis implements IdempotencyStore {
 
-    private final StatefulRedisConnection<String, String> stringConn;
-    private final StatefulRedisConnection<String, String> binaryConn;
+    private final IdemConnectionPool redis;
     private final IdempotencyProperties props;
     private final IdemCodec codec;
+    private final IdemCompletionListener completions;
+    private final LuaScriptRegistry scripts;
 
-    public IdempotencyStoreRedis(RedisClient client,
+    public IdempotencyStoreRedis(IdemConnectionPool redis,
                                  IdempotencyProperties props,
-                                 IdemCodec codec) {
-        // Two connections: one for strings (scripts & metadata) and one for binary payload field
-        this.stringConn = client.connect(new io.lettuce.core.codec.StringCodec());
-        this.binaryConn = client.connect();
+                                 IdemCodec codec,
+                                 IdemCompletionListener completions) {
+        // Standalone or cluster; String keys, byte[] values, spread over the pool's multiplexed connections
+        this.redis = Objects.requireNonNull(redis);
         this.props = props == null ? IdempotencyProperties.defaults() : props;
         this.codec = Objects.requireNonNull(codec);
+        this.completions = Objects.requireNonNull(completions);
+        this.scripts = new LuaScriptRegistry(redis.anySync(), LuaScripts.ALL);
     }
 
     @Override
     public <T> T execute(String opcode, UUID key, byte[] requestHash, Supplier<T> supplier, Runnable onHit) throws Exception {
+        return executeTracked(opcode, key, requestHash, supplier, onHit).value();
+    }
+
+    /**
+     * Expiry deadlines are taken from a clock reading made before the Redis call that set or reported the TTL,
+     * so they are never later than the key's real expiry. Results obtained by waiting on another leader carry
+     * no deadline (reading it would cost an extra round trip; the next duplicate gets it from the DONE reply).
+     */
+    @Override
+    public <T> Completed<T> executeTracked(String opcode, UUID key, byte[] requestHash, Supplier<T> supplier,
+                                           Runnable onHit) throws Exception {
         Objects.requireNonNull(opcode, "opcode");
         Objects.requireNonNull(key, "idempotency key");
         Objects.requireNonNull(requestHash, "requestHash");
-        String redisKey = redisKey(opcode, key);
+        String redisKey = IdemKeys.redisKey(opcode, key);
         String b64hash  = IdemCodec.b64(requestHash);
 
-        RedisCommands<String, String> cmd = stringConn.sync();
-
-        String state = cmd.eval(LuaScripts.CREATE_OR_VALIDATE, ScriptOutputType.VALUE,
-                new String[]{redisKey}, b64hash, String.valueOf(props.pendingTtlSeconds()));
+        long sentAt = System.nanoTime();
+        List<Object> reply = redis.sync("create_or_fetch", c -> scripts.eval(c, LuaScripts.CREATE_OR_FETCH,
+                ScriptOutputType.MULTI, new String[]{redisKey},
+                IdemCodec.utf8(b64hash), IdemCodec.utf8(String.valueOf(props.pendingTtlSeconds()))));
+        String state = reply.isEmpty() ? null : text(reply.get(0));
 
-        switch (state) {
+        switch (state == null ? "" : state) {
             case "HASH_MISMATCH" -> throw Problem.conflict("IDEMPOTENCY_KEY_REUSED_DIFFERENT_REQUEST",
                     "Idempotency-Key was used with a different request body.");
             case "DONE" -> {
-                // Return cached result
-                byte[] payload = fetchPayload(redisKey, b64hash);
+                // Return cached result straight from the script reply (no follow-up HGETs)
+                byte[] payload = payloadFromReply(reply, b64hash);
                 T cached = codec.deserialize(payload);
                 if (onHit != null) onHit.run();
-                return cached;
+                return new Completed<>(cached, deadline(sentAt, pttlFromReply(reply)));
             }
             case "PENDING" -> {
                 // Another request is in-flight. Wait (bounded) for it to complete.
                 T res = waitAndReuse(redisKey, b64hash);
                 if (res != null) {
                     if (onHit != null) onHit.run();
-                    return res;
+                    return new Completed<>(res, null);
                 }
                 // Not completed within window—become the leader by trying again from scratch: re-run supplier.
             }
@@ -82,42 +99,71 @@ public class IdempotencyStoreRedis implements IdempotencyStore, AutoCloseable {
                         "Response exceeds idempotency cache payload limit.");
             }
 
-            // Atomically mark DONE and store payload
-            var binCmd = binaryConn.sync();
-            String ok = (String) binCmd.eval(LuaScripts.COMPLETE_SUCCESS, ScriptOutputType.VALUE,
-                    redisKey, b64hash, Arrays.toString(payload), String.valueOf(props.ttlSeconds()));
+            // Atomically mark DONE and store payload (raw bytes, no String round trip)
+            long completingAt = System.nanoTime();
+            byte[] ok = redis.sync("complete_success", c -> scripts.<String, byte[], byte[]>eval(c,
+                    LuaScripts.COMPLETE_SUCCESS, ScriptOutputType.VALUE, new String[]{redisKey},
+                    IdemCodec.utf8(b64hash), payload,
+                    IdemCodec.utf8(String.valueOf(props.ttlSeconds())),
+                    IdemCodec.utf8(IdemCompletionListener.channel(redisKey))));
 
-            if (!"OK".equals(ok)) {
+            if (!"OK".equals(text(ok))) {
                 // Another writer beat us (rare) or hash mismatch due to tampering.
                 // Fallback: read final payload and return it to ensure consistency.
                 byte[] finalPayload = fetchPayload(redisKey, b64hash);
-                return codec.deserialize(finalPayload);
+                return new Completed<>(codec.<T>deserialize(finalPayload), null);
             }
 
-            return result;
+            return new Completed<>(result, deadline(completingAt, TimeUnit.SECONDS.toMillis(props.ttlSeconds())));
 
         } catch (RuntimeException ex) {
             // On failure, clean the PENDING key to allow a retry path.
-            cmd.eval(LuaScripts.CLEAN_ON_FAILURE, ScriptOutputType.VALUE, new String[]{redisKey});
+            redis.sync("clean_on_failure", c -> scripts.<String, byte[], byte[]>eval(c,
+                    LuaScripts.CLEAN_ON_FAILURE, ScriptOutputType.VALUE, new String[]{redisKey}));
             throw ex;
         }
     }
 
     private <T> T waitAndReuse(String redisKey, String b64hash) throws Exception {
         long deadline = System.nanoTime() + Duration.ofMillis(props.waitMaxMillis()).toNanos();
-        RedisCommands<String, String> scmd = stringConn.sync();
-
-        while (System.nanoTime() < deadline) {
-            // Fast check
-            var status = scmd.hget(redisKey, "status");
-            if ("DONE".equals(status)) {
-                byte[] payload = fetchPayload(redisKey, b64hash);
-                return codec.deserialize(payload);
+
+        // Subscribe first: the leader's SPUBLISH wakes us; polling is only a fallback for a missed signal.
+        IdemCompletionListener.Signal signal = completions.await(redisKey);
+        try {
+            awaitSignal(signal.subscribed(), fallbackPoll());
+            while (System.nanoTime() < deadline) {
+                var status = text(redis.sync("hget_status", c -> c.hget(redisKey, "status")));
+                if ("DONE".equals(status)) {
+                    byte[] payload = fetchPayload(redisKey, b64hash);
+                    return codec.deserialize(payload);
+                }
+                if (status == null) {
+                    // Leader failed and cleaned up (or key expired) — nothing to wait for.
+                    return null;
+                }
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) break;
+                awaitSignal(signal.done(), Math.min(fallbackPoll(), remainingMs));
             }
-            // Backoff
-            sleep(backoff());
+            return null;
+        } finally {
+            completions.release(signal);
         }
-        return null;
+    }
+
+    private static void awaitSignal(CompletableFuture<?> signal, long millis) {
+        try {
+            signal.get(millis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException ignored) {
+            // fall through to a status re-check
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long fallbackPoll() {
+        long poll = props.waitFallbackPollMillis();
+        return poll > 0 ? poll : backoff();
     }
 
     private long backoff() {
@@ -126,34 +172,40 @@ public class IdempotencyStoreRedis implements IdempotencyStore, AutoCloseable {
         return ThreadLocalRandom.current().nextLong(min, max + 1);
     }
 
+    private static byte[] payloadFromReply(List<Object> reply, String b64hash) {
+        if (reply.size() < 3 || !b64hash.equals(text(reply.get(1)))) {
+            throw Problem.internal("IDEMPOTENCY_REDIS_PROTOCOL", "Malformed DONE reply.");
+        }
+        Object payload = reply.get(2);
+        if (payload == null) throw Problem.internal("IDEMPOTENCY_PAYLOAD_MISSING", "Payload missing for DONE record.");
+        return (byte[]) payload;
+    }
+
+    /** PTTL from a DONE reply; negative when absent (older script) or the key has no expiry. */
+    private static long pttlFromReply(List<Object> reply) {
+        return reply.size() > 3 && reply.get(3) instanceof Long pttl ? pttl : -1;
+    }
+
+    private static Long deadline(long startNanos, long ttlMillis) {
+        return ttlMillis > 0 ? startNanos + TimeUnit.MILLISECONDS.toNanos(ttlMillis) : null;
+    }
+
     private byte[] fetchPayload(String redisKey, String b64hash) throws Exception {
-        var bcmd = binaryConn.sync();
-        // Validate hash again to be safe
-        String storedHash = stringConn.sync().hget(redisKey, "hash");
+        // Hash + payload in one HMGET; validate hash again to be safe
+        var fields = redis.sync("hmget_payload", c -> c.hmget(redisKey, "hash", "payload"));
+        String storedHash = text(fields.get(0).getValueOrElse(null));
         if (storedHash == null) throw Problem.internal("IDEMPOTENCY_MISSING", "Cache record missing.");
         if (!storedHash.equals(b64hash)) {
             throw Problem.conflict("IDEMPOTENCY_KEY_REUSED_DIFFERENT_REQUEST",
                     "Idempotency-Key was used with a different request body.");
         }
-        byte[] payload = bcmd.hget(redisKey, "payload").getBytes();
+        byte[] payload = fields.get(1).getValueOrElse(null);
         if (payload == null) throw Problem.internal("IDEMPOTENCY_PAYLOAD_MISSING", "Payload missing for DONE record.");
         return payload;
     }
 
-    private static String redisKey(String opcode, UUID key) {
-        return "idem:" + opcode + ":" + key;
-    }
-
-    private static void sleep(long millis) {
-        try { Thread.sleep(millis); } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    @Override
-    public void close() {
-        try { stringConn.close(); } catch (Exception ignored) {}
-        try { binaryConn.close(); } catch (Exception ignored) {}
+    private static String text(Object redisValue) {
+        return redisValue == null ? null : new String((byte[]) redisValue, StandardCharsets.UTF_8);
     }
 }
 
@@ -0,0 +1,35 @@
+package com.lms.party360.idem;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** Jackson fallback for arbitrary payloads (type info embedded as a property). */
+public final class JsonPayloadCodec implements PayloadCodec {
+
+    static final byte ID = 1;
+
+    private final ObjectMapper om;
+
+    public JsonPayloadCodec(ObjectMapper om) {
+        // Enable default typing ONLY for this dedicated mapper to store type info safely.
+        this.om = om.copy()
+                .activateDefaultTyping(om.getPolymorphicTypeValidator(),
+                        ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    }
+
+    @Override
+    public byte id() { return ID; }
+
+    @Override
+    public boolean supports(Object value) { return true; }
+
+    @Override
+    public byte[] encode(Object value) throws Exception {
+        return om.writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] body) throws Exception {
+        return om.readValue(body, Object.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.lms.party360.idem;
+
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.reactive.RedisScriptingReactiveCommands;
+import io.lettuce.core.api.sync.RedisScriptingCommands;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SCRIPT LOAD-once registry: scripts are shipped at startup and invoked with EVALSHA afterwards.
+ * A NOSCRIPT reply (restart, failover, SCRIPT FLUSH) triggers a single reload + retry.
+ */
+final class LuaScriptRegistry {
+
+    private final Map<String, String> shaByScript = new ConcurrentHashMap<>();
+
+    LuaScriptRegistry(RedisScriptingCommands<?, ?> cmd, Collection<String> scripts) {
+        scripts.forEach(s -> shaByScript.put(s, cmd.scriptLoad(s)));
+    }
+
+    @SafeVarargs
+    final <K, V, R> R eval(RedisScriptingCommands<K, V> cmd, String script, ScriptOutputType type, K[] keys, V... args) {
+        String sha = shaByScript.computeIfAbsent(script, cmd::scriptLoad);
+        try {
+            return cmd.evalsha(sha, type, keys, args);
+        } catch (RedisNoScriptException e) {
+            String reloaded = cmd.scriptLoad(script);
+            shaByScript.put(script, reloaded);
+            return cmd.evalsha(reloaded, type, keys, args);
+        }
+    }
+
+    /** Reactive twin of {@link #eval}; MULTI replies are emitted element by element (Lettuce dissolves them). */
+    @SafeVarargs
+    final <K, V, R> Flux<R> evalReactive(RedisScriptingReactiveCommands<K, V> cmd, String script, ScriptOutputType type,
+                                         K[] keys, V... args) {
+        Mono<String> sha = Mono.justOrEmpty(shaByScript.get(script))
+                .switchIfEmpty(Mono.defer(() -> load(cmd, script)));
+        return sha.flatMapMany(s -> cmd.<R>evalsha(s, type, keys, args))
+                .onErrorResume(RedisNoScriptException.class,
+                        e -> load(cmd, script).flatMapMany(s -> cmd.<R>evalsha(s, type, keys, args)));
+    }
+
+    private Mono<String> load(RedisScriptingReactiveCommands<?, ?> cmd, String script) {
+        return cmd.scriptLoad(script).doOnNext(s -> shaByScript.put(script, s));
+    }
+}
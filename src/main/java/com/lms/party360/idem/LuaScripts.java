@@ -1,10 +1,13 @@
 package com.lms.party360.idem;
 
+import java.util.List;
+
 final class LuaScripts {
     // KEYS[1] = key
     // ARGV[1] = base64 hash
     // ARGV[2] = pending ttl seconds
-    static final String CREATE_OR_VALIDATE = """
+    // returns {state} or {'DONE', hash, payload, pttl} so a duplicate costs a single round trip
+    static final String CREATE_OR_FETCH = """
   local k     = KEYS[1]
   local hash  = ARGV[1]
   local pttl  = tonumber(ARGV[2])
@@ -12,26 +15,27 @@ final class LuaScripts {
   if redis.call('EXISTS', k) == 0 then
     redis.call('HSET', k, 'hash', hash, 'status', 'PENDING', 'ts', tostring(redis.call('TIME')[1]))
     redis.call('EXPIRE', k, pttl)
-    return 'CREATED'
+    return {'CREATED'}
   end
 
-  local oldHash = redis.call('HGET', k, 'hash')
-  if oldHash ~= hash then
-    return 'HASH_MISMATCH'
+  local rec = redis.call('HMGET', k, 'hash', 'status', 'payload')
+  if rec[1] ~= hash then
+    return {'HASH_MISMATCH'}
   end
 
-  local status = redis.call('HGET', k, 'status')
-  if status == 'DONE' then
-    return 'DONE'
+  if rec[2] == 'DONE' then
+    return {'DONE', rec[1], rec[3], redis.call('PTTL', k)}
   else
-    return 'PENDING'
+    return {'PENDING'}
   end
   """;
 
     // KEYS[1] = key
     // ARGV[1] = base64 hash
-    // ARGV[2] = payload (binary via Redis driver)
+    // ARGV[2] = payload (framed IdemCodec bytes, sent via ByteArrayCodec)
     // ARGV[3] = ttl seconds (long)
+    // ARGV[4] = completion channel: shard channel in KEYS[1]'s slot (same hash tag); waiters SSUBSCRIBE via
+    //           IdemCompletionListener
     static final String COMPLETE_SUCCESS = """
   local k = KEYS[1]
   local hash = ARGV[1]
@@ -47,17 +51,21 @@ final class LuaScripts {
 
   redis.call('HSET', k, 'payload', ARGV[2], 'status', 'DONE', 'ts', tostring(redis.call('TIME')[1]))
   redis.call('EXPIRE', k, tonumber(ARGV[3]))
+  redis.call('SPUBLISH', ARGV[4], 'DONE')
   return 'OK'
   """;
 
     // KEYS[1] = key
-    // purpose: clean up after supplier failure so a retry can run
+    // purpose: clean up after supplier failure / leader cancel so a retry can run; only a PENDING record is
+    // deleted, so a late cleanup never drops a result that was already completed
     static final String CLEAN_ON_FAILURE = """
   local k = KEYS[1]
-  if redis.call('EXISTS', k) == 1 then
+  if redis.call('HGET', k, 'status') == 'PENDING' then
     redis.call('DEL', k)
   end
   return 'OK'
   """;
+
+    static final List<String> ALL = List.of(CREATE_OR_FETCH, COMPLETE_SUCCESS, CLEAN_ON_FAILURE);
 }
 
@@ -0,0 +1,93 @@
+package com.lms.party360.idem;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.lms.party360.exception.Problem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.security.MessageDigest;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier IdempotencyStore: a bounded, size-weighted local cache of DONE results in front of Redis.
+ *
+ * Only completed results are cached locally (hash + encoded payload); misses and PENDING states always
+ * fall through to the delegate, so cross-pod coordination is unchanged. Each entry expires at the deadline the
+ * delegate reports for the Redis record (remaining PTTL for a DONE hit, the fresh TTL for a result we just
+ * completed), so it never outlives the authoritative record; results without a known deadline are not cached.
+ */
+public class NearCacheIdempotencyStore implements IdempotencyStore {
+
+    /** Rough per-entry overhead (key, node, arrays) added to the weigher. */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final IdempotencyStore delegate;
+    private final IdemCodec codec;
+    private final Cache<String, Done> done;
+
+    public NearCacheIdempotencyStore(IdempotencyStore delegate,
+                                     IdemCodec codec,
+                                     IdempotencyProperties props,
+                                     MeterRegistry metrics) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.codec = Objects.requireNonNull(codec);
+        this.done = Caffeine.newBuilder()
+                .maximumWeight(props.nearCacheMaxBytes())
+                .weigher((String k, Done v) -> ENTRY_OVERHEAD_BYTES + k.length() + v.hash.length + v.payload.length)
+                .expireAfter(new UntilRecordExpiry())
+                .recordStats()
+                .build();
+        if (metrics != null) {
+            CaffeineCacheMetrics.monitor(metrics, done, "idempotency.near");
+        }
+    }
+
+    @Override
+    public <T> T execute(String opcode, UUID key, byte[] requestHash, Supplier<T> supplier, Runnable onHit) throws Exception {
+        String localKey = opcode + ":" + key;
+
+        Done hit = done.getIfPresent(localKey);
+        if (hit != null) {
+            if (!MessageDigest.isEqual(hit.hash, requestHash)) {
+                throw Problem.conflict("IDEMPOTENCY_KEY_REUSED_DIFFERENT_REQUEST",
+                        "Idempotency-Key was used with a different request body.");
+            }
+            T cached = codec.deserialize(hit.payload);
+            if (onHit != null) onHit.run();
+            return cached;
+        }
+
+        // Miss or PENDING elsewhere: Redis stays the source of truth.
+        Completed<T> completed = delegate.executeTracked(opcode, key, requestHash, supplier, onHit);
+        T result = completed.value();
+        Long expiresAt = completed.expiresAtNanos();
+        if (result != null && expiresAt != null && expiresAt - System.nanoTime() > 0) {
+            done.put(localKey, new Done(requestHash.clone(), codec.serialize(result), expiresAt));
+        }
+        return result;
+    }
+
+    private record Done(byte[] hash, byte[] payload, long expiresAtNanos) {}
+
+    /** Expires each entry at its Redis deadline; reads and overwrites never extend it. */
+    private static final class UntilRecordExpiry implements Expiry<String, Done> {
+        @Override
+        public long expireAfterCreate(String key, Done value, long currentTime) {
+            return Math.max(0, value.expiresAtNanos - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Done value, long currentTime, long currentDuration) {
+            return Math.max(0, value.expiresAtNanos - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Done value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
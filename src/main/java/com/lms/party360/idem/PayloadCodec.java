@@ -0,0 +1,20 @@
+package com.lms.party360.idem;
+
+/**
+ * SPI for idempotency payload encodings.
+ *
+ * Each implementation owns a stable one-byte {@link #id()} that {@link IdemCodec} writes in front of the
+ * body, so stored payloads stay readable after the preferred codec changes.
+ */
+public interface PayloadCodec {
+
+    /** Stable on-the-wire identifier; never reuse a retired id. */
+    byte id();
+
+    /** True if this codec can encode the given value (decoding is always attempted by id). */
+    boolean supports(Object value);
+
+    byte[] encode(Object value) throws Exception;
+
+    Object decode(byte[] body) throws Exception;
+}
@@ -0,0 +1,19 @@
+package com.lms.party360.idem;
+
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public interface ReactiveIdempotencyStore {
+    /**
+     * Non-blocking twin of {@link IdempotencyStore#execute}: same semantics, but no thread is held while
+     * talking to Redis or while waiting on a PENDING leader.
+     * - DONE with matching hash -> cached result, onHit.run().
+     * - Hash mismatch -> 409 conflict (error signal).
+     * - PENDING -> wait (bounded, signal-driven), then reuse or subscribe to the supplier.
+     * - Supplier completes empty -> the key is released (nothing is cached) and the result is empty.
+     * - Leader cancelled (e.g. client disconnect) -> the PENDING key is released, so a retry can lead.
+     */
+    <T> Mono<T> execute(String opcode, UUID key, byte[] requestHash, Supplier<Mono<T>> supplier, Runnable onHit);
+}
@@ -0,0 +1,195 @@
+package com.lms.party360.idem;
+
+import com.lms.party360.exception.Problem;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.ScriptOutputType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Reactive IdempotencyStore on Lettuce's reactive API.
+ *
+ * Same keyspace, scripts and payload format as {@link IdempotencyStoreRedis}, so blocking and reactive
+ * callers coordinate on the same keys. PENDING waits park on the shared {@link IdemCompletionListener}
+ * signal (or a fallback timer) instead of sleeping a request thread.
+ */
+@Component
+public class ReactiveIdempotencyStoreRedis implements ReactiveIdempotencyStore {
+
+    private final IdemConnectionPool redis;
+    private final IdempotencyProperties props;
+    private final IdemCodec codec;
+    private final IdemCompletionListener completions;
+    private final LuaScriptRegistry scripts;
+
+    public ReactiveIdempotencyStoreRedis(IdemConnectionPool redis,
+                                         IdempotencyProperties props,
+                                         IdemCodec codec,
+                                         IdemCompletionListener completions) {
+        this.redis = Objects.requireNonNull(redis);
+        this.props = props == null ? IdempotencyProperties.defaults() : props;
+        this.codec = Objects.requireNonNull(codec);
+        this.completions = Objects.requireNonNull(completions);
+        // SCRIPT LOAD once at startup (blocking is fine here, never on the request path)
+        this.scripts = new LuaScriptRegistry(redis.anySync(), LuaScripts.ALL);
+    }
+
+    @Override
+    public <T> Mono<T> execute(String opcode, UUID key, byte[] requestHash, Supplier<Mono<T>> supplier, Runnable onHit) {
+        Objects.requireNonNull(opcode, "opcode");
+        Objects.requireNonNull(key, "idempotency key");
+        Objects.requireNonNull(requestHash, "requestHash");
+        String redisKey = IdemKeys.redisKey(opcode, key);
+        String b64hash  = IdemCodec.b64(requestHash);
+
+        return redis.reactive("create_or_fetch", c -> scripts.<String, byte[], Object>evalReactive(c,
+                        LuaScripts.CREATE_OR_FETCH, ScriptOutputType.MULTI, new String[]{redisKey},
+                        IdemCodec.utf8(b64hash), IdemCodec.utf8(String.valueOf(props.pendingTtlSeconds()))))
+                .collectList()
+                .flatMap(reply -> {
+                    String state = reply.isEmpty() ? "" : text(reply.get(0));
+                    return switch (state) {
+                        case "HASH_MISMATCH" -> Mono.error(Problem.conflict("IDEMPOTENCY_KEY_REUSED_DIFFERENT_REQUEST",
+                                "Idempotency-Key was used with a different request body."));
+                        case "DONE" -> Mono.fromCallable(() -> this.<T>hit(payloadFromReply(reply, b64hash), onHit));
+                        case "PENDING" -> waitAndReuse(redisKey, b64hash)
+                                .flatMap(res -> res.isPresent()
+                                        ? Mono.fromCallable(() -> this.<T>hit(res.get(), onHit))
+                                        // Not completed within window—become the leader: re-run supplier.
+                                        : lead(redisKey, b64hash, supplier));
+                        case "CREATED" -> lead(redisKey, b64hash, supplier);
+                        default -> Mono.error(Problem.internal("IDEMPOTENCY_REDIS_PROTOCOL",
+                                "Unexpected Redis result: " + state));
+                    };
+                });
+    }
+
+    // ---------- Leader path ----------
+
+    private <T> Mono<T> lead(String redisKey, String b64hash, Supplier<Mono<T>> supplier) {
+        return Mono.defer(supplier)
+                // An empty supplier produced nothing to replay: release the key so a retry runs again
+                // instead of being blocked behind PENDING until pendingTtlSeconds.
+                .switchIfEmpty(Mono.defer(() -> release(redisKey).then(Mono.<T>empty())))
+                .flatMap(result -> {
+                    byte[] payload = codec.serialize(result);
+                    if (payload.length > props.maxPayloadBytes()) {
+                        // avoid DOS by gigantic cached response
+                        return Mono.error(Problem.internal("IDEMPOTENCY_PAYLOAD_TOO_LARGE",
+                                "Response exceeds idempotency cache payload limit."));
+                    }
+                    return redis.reactive("complete_success", c -> scripts.<String, byte[], byte[]>evalReactive(c,
+                                    LuaScripts.COMPLETE_SUCCESS, ScriptOutputType.VALUE, new String[]{redisKey},
+                                    IdemCodec.utf8(b64hash), payload,
+                                    IdemCodec.utf8(String.valueOf(props.ttlSeconds())),
+                                    IdemCodec.utf8(IdemCompletionListener.channel(redisKey))))
+                            .next()
+                            .flatMap(ok -> "OK".equals(text(ok))
+                                    ? Mono.just(result)
+                                    // Another writer beat us: return the stored result for consistency.
+                                    : fetchPayload(redisKey, b64hash).map(codec::<T>deserialize));
+                })
+                // On failure, clean the PENDING key to allow a retry path.
+                .onErrorResume(RuntimeException.class, ex -> release(redisKey).then(Mono.error(ex)))
+                // Cancelled (client gone): nobody awaits the release, so it runs detached. A record that
+                // already reached DONE is kept by the script.
+                .doOnCancel(() -> release(redisKey).subscribe());
+    }
+
+    /** Deletes the record if still PENDING; cleanup errors are swallowed (the key still expires after pendingTtlSeconds). */
+    private Mono<Void> release(String redisKey) {
+        return redis.reactive("clean_on_failure", c -> scripts.<String, byte[], byte[]>evalReactive(c,
+                        LuaScripts.CLEAN_ON_FAILURE, ScriptOutputType.VALUE, new String[]{redisKey}))
+                .onErrorResume(cleanup -> Mono.empty())
+                .then();
+    }
+
+    // ---------- Waiter path ----------
+
+    /** Emits the DONE payload, or an empty Optional if the leader vanished or the wait window elapsed. */
+    private Mono<Optional<byte[]>> waitAndReuse(String redisKey, String b64hash) {
+        return Mono.defer(() -> {
+            // Subscribe first: the leader's SPUBLISH wakes us; timer polling is only a fallback.
+            IdemCompletionListener.Signal signal = completions.await(redisKey);
+            Mono<Boolean> wake = Mono.firstWithSignal(
+                    Mono.fromFuture(signal.done(), true).onErrorResume(e -> Mono.empty()).then(),
+                    Mono.delay(Duration.ofMillis(fallbackPoll())).then())
+                    .then(Mono.just(Boolean.TRUE));
+
+            return Mono.fromFuture(signal.subscribed(), true).onErrorResume(e -> Mono.empty())
+                    .then(pollOnce(redisKey, b64hash)
+                            .repeatWhenEmpty(attempts -> attempts.concatMap(i -> wake)))
+                    .timeout(Duration.ofMillis(props.waitMaxMillis()))
+                    .onErrorResume(TimeoutException.class, e -> Mono.just(Optional.empty()))
+                    .doFinally(s -> completions.release(signal));
+        });
+    }
+
+    /** DONE -> payload, gone -> Optional.empty(), still PENDING -> empty Mono (repeat). */
+    private Mono<Optional<byte[]>> pollOnce(String redisKey, String b64hash) {
+        return redis.reactive("hget_status", c -> c.hget(redisKey, "status"))
+                .next()
+                .map(ReactiveIdempotencyStoreRedis::text)
+                .defaultIfEmpty("")
+                .flatMap(status -> switch (status) {
+                    case "DONE" -> fetchPayload(redisKey, b64hash).map(Optional::of);
+                    // Leader failed and cleaned up (or key expired) — nothing to wait for.
+                    case "" -> Mono.just(Optional.<byte[]>empty());
+                    default -> Mono.<Optional<byte[]>>empty();
+                });
+    }
+
+    private Mono<byte[]> fetchPayload(String redisKey, String b64hash) {
+        // Hash + payload in one HMGET; validate hash again to be safe
+        return redis.reactive("hmget_payload", c -> c.hmget(redisKey, "hash", "payload")).collectList().flatMap(fields -> {
+            String storedHash = text(value(fields, 0));
+            if (storedHash == null) return Mono.error(Problem.internal("IDEMPOTENCY_MISSING", "Cache record missing."));
+            if (!storedHash.equals(b64hash)) {
+                return Mono.error(Problem.conflict("IDEMPOTENCY_KEY_REUSED_DIFFERENT_REQUEST",
+                        "Idempotency-Key was used with a different request body."));
+            }
+            byte[] payload = value(fields, 1);
+            if (payload == null) {
+                return Mono.error(Problem.internal("IDEMPOTENCY_PAYLOAD_MISSING", "Payload missing for DONE record."));
+            }
+            return Mono.just(payload);
+        });
+    }
+
+    // ---------- Helpers ----------
+
+    private <T> T hit(byte[] payload, Runnable onHit) {
+        T cached = codec.deserialize(payload);
+        if (onHit != null) onHit.run();
+        return cached;
+    }
+
+    private static byte[] payloadFromReply(List<Object> reply, String b64hash) {
+        if (reply.size() < 3 || !b64hash.equals(text(reply.get(1)))) {
+            throw Problem.internal("IDEMPOTENCY_REDIS_PROTOCOL", "Malformed DONE reply.");
+        }
+        return (byte[]) reply.get(2);
+    }
+
+    private static byte[] value(List<KeyValue<String, byte[]>> fields, int i) {
+        return fields.size() > i ? fields.get(i).getValueOrElse(null) : null;
+    }
+
+    private long fallbackPoll() {
+        long poll = props.waitFallbackPollMillis();
+        return poll > 0 ? poll : props.waitBackoffMaxMillis();
+    }
+
+    private static String text(Object redisValue) {
+        return redisValue == null ? null : new String((byte[]) redisValue, StandardCharsets.UTF_8);
+    }
+}
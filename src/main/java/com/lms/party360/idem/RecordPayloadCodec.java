@@ -0,0 +1,186 @@
+package com.lms.party360.idem;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact, type-tagged binary codec for response records (e.g. CreatePartyResponse).
+ *
+ * Layout: [u16 typeTag] then every record component in declaration order as [presence byte][value].
+ * Only explicitly registered record types are accepted, so decoding never instantiates arbitrary classes.
+ * Supported component types: String, boxed/primitive int/long/boolean/double, enums (by name), UUID,
+ * Instant, LocalDate, OffsetDateTime and nested registered records.
+ *
+ * Tags are part of the stored format: append new types, never renumber existing ones.
+ */
+public final class RecordPayloadCodec implements PayloadCodec {
+
+    static final byte ID = 2;
+
+    private final Map<Class<?>, Layout> byType = new HashMap<>();
+    private final Map<Integer, Layout> byTag = new HashMap<>();
+
+    /** Registers a record type under a stable tag. Not thread-safe; call during configuration only. */
+    public RecordPayloadCodec register(int tag, Class<? extends Record> type) {
+        if (tag < 0 || tag > 0xFFFF) throw new IllegalArgumentException("tag must fit in u16: " + tag);
+        if (byTag.containsKey(tag)) throw new IllegalArgumentException("duplicate tag " + tag);
+        Layout layout = Layout.of(tag, type);
+        byType.put(type, layout);
+        byTag.put(tag, layout);
+        return this;
+    }
+
+    @Override
+    public byte id() { return ID; }
+
+    @Override
+    public boolean supports(Object value) {
+        return value != null && byType.containsKey(value.getClass());
+    }
+
+    @Override
+    public byte[] encode(Object value) throws Exception {
+        var bytes = new ByteArrayOutputStream(128);
+        var out = new DataOutputStream(bytes);
+        try {
+            writeRecord(out, (Record) value);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] body) throws Exception {
+        try {
+            return readRecord(new DataInputStream(new ByteArrayInputStream(body)));
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // ---------- Records ----------
+
+    private void writeRecord(DataOutputStream out, Record value) throws Throwable {
+        Layout layout = byType.get(value.getClass());
+        if (layout == null) throw new IllegalArgumentException("Unregistered record type " + value.getClass().getName());
+        out.writeShort(layout.tag);
+        for (int i = 0; i < layout.accessors.length; i++) {
+            writeValue(out, layout.types[i], layout.accessors[i].invoke(value));
+        }
+    }
+
+    private Object readRecord(DataInputStream in) throws Throwable {
+        int tag = in.readUnsignedShort();
+        Layout layout = byTag.get(tag);
+        if (layout == null) throw new IllegalStateException("Unknown record tag " + tag);
+        Object[] args = new Object[layout.types.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = readValue(in, layout.types[i]);
+        }
+        return layout.constructor.invokeWithArguments(args);
+    }
+
+    // ---------- Values ----------
+
+    private void writeValue(DataOutputStream out, Class<?> type, Object v) throws Throwable {
+        if (v == null) {
+            if (type.isPrimitive()) throw new IllegalStateException("null primitive");
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1);
+        if (type == String.class) writeString(out, (String) v);
+        else if (type == long.class || type == Long.class) out.writeLong((Long) v);
+        else if (type == int.class || type == Integer.class) out.writeInt((Integer) v);
+        else if (type == boolean.class || type == Boolean.class) out.writeBoolean((Boolean) v);
+        else if (type == double.class || type == Double.class) out.writeDouble((Double) v);
+        else if (type.isEnum()) writeString(out, ((Enum<?>) v).name());
+        else if (type == UUID.class) {
+            out.writeLong(((UUID) v).getMostSignificantBits());
+            out.writeLong(((UUID) v).getLeastSignificantBits());
+        } else if (type == Instant.class) {
+            out.writeLong(((Instant) v).getEpochSecond());
+            out.writeInt(((Instant) v).getNano());
+        } else if (type == LocalDate.class) out.writeLong(((LocalDate) v).toEpochDay());
+        else if (type == OffsetDateTime.class) {
+            OffsetDateTime t = (OffsetDateTime) v;
+            out.writeLong(t.toEpochSecond());
+            out.writeInt(t.getNano());
+            out.writeInt(t.getOffset().getTotalSeconds());
+        } else if (type.isRecord()) writeRecord(out, (Record) v);
+        else throw new IllegalStateException("Unsupported component type " + type.getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readValue(DataInputStream in, Class<?> type) throws Throwable {
+        if (in.readByte() == 0) return null;
+        if (type == String.class) return readString(in);
+        if (type == long.class || type == Long.class) return in.readLong();
+        if (type == int.class || type == Integer.class) return in.readInt();
+        if (type == boolean.class || type == Boolean.class) return in.readBoolean();
+        if (type == double.class || type == Double.class) return in.readDouble();
+        if (type.isEnum()) return Enum.valueOf((Class) type, readString(in));
+        if (type == UUID.class) return new UUID(in.readLong(), in.readLong());
+        if (type == Instant.class) return Instant.ofEpochSecond(in.readLong(), in.readInt());
+        if (type == LocalDate.class) return LocalDate.ofEpochDay(in.readLong());
+        if (type == OffsetDateTime.class) {
+            long sec = in.readLong();
+            int nano = in.readInt();
+            ZoneOffset off = ZoneOffset.ofTotalSeconds(in.readInt());
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(sec, nano), off);
+        }
+        if (type.isRecord()) return readRecord(in);
+        throw new IllegalStateException("Unsupported component type " + type.getName());
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    // ---------- Per-type layout (resolved once) ----------
+
+    private record Layout(int tag, Class<?>[] types, MethodHandle[] accessors, MethodHandle constructor) {
+        static Layout of(int tag, Class<? extends Record> type) {
+            try {
+                RecordComponent[] rc = type.getRecordComponents();
+                Class<?>[] types = Arrays.stream(rc).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                var lookup = MethodHandles.publicLookup();
+                MethodHandle[] accessors = new MethodHandle[rc.length];
+                for (int i = 0; i < rc.length; i++) accessors[i] = lookup.unreflect(rc[i].getAccessor());
+                MethodHandle ctor = lookup.unreflectConstructor(type.getDeclaredConstructor(types));
+                return new Layout(tag, types, accessors, ctor);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Record " + type.getName() + " must be public with a public canonical constructor", e);
+            }
+        }
+    }
+}
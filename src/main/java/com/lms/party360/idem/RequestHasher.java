@@ -0,0 +1,173 @@
+package com.lms.party360.idem;
+
+import com.lms.party360.util.ScratchPool;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.RecordComponent;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Canonical, streaming SHA-256 of a command request for idempotency.
+ *
+ * Record components (recursively, including nested records and lists) are fed straight into a pooled
+ * MessageDigest (ScratchPool: reused on platform and virtual threads alike): every value is written as [type tag][length?][bytes] and strings are UTF-8 encoded
+ * char-by-char into a scratch buffer, so no joined or intermediate Strings are built. Tags and lengths make the
+ * encoding unambiguous — {@code null} differs from {@code ""}, and ("ab","c") differs from ("a","bc").
+ *
+ * Works for any request record, so other commands can share it. Adding a component to a request
+ * changes its hashes; that is intended (the request shape is part of its identity).
+ */
+public final class RequestHasher {
+
+    private static final byte T_NULL = 0, T_STRING = 1, T_BOOL = 2, T_LONG = 3, T_DOUBLE = 4,
+            T_RECORD = 5, T_LIST = 6, T_MAP = 7, T_ENUM = 8, T_OTHER = 9;
+
+    private static final ClassValue<Component[]> COMPONENTS = new ClassValue<>() {
+        @Override
+        protected Component[] computeValue(Class<?> type) {
+            RecordComponent[] rc = type.getRecordComponents();
+            Component[] out = new Component[rc.length];
+            try {
+                var lookup = MethodHandles.publicLookup();
+                for (int i = 0; i < rc.length; i++) {
+                    out[i] = new Component(rc[i].getName(), lookup.unreflect(rc[i].getAccessor()));
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Record " + type.getName() + " must be public", e);
+            }
+            return out;
+        }
+    };
+
+    static final ScratchPool<State> STATE = ScratchPool.perCore(State::new);
+
+    private RequestHasher() {}
+
+    public static byte[] sha256(Object request) {
+        State s = STATE.borrow();
+        try {
+            s.digest.reset();
+            s.pos = 0;
+            s.write(request);
+            s.flush();
+            return s.digest.digest();
+        } finally {
+            STATE.release(s);
+        }
+    }
+
+    private record Component(String name, MethodHandle accessor) {}
+
+    static final class State {
+        final MessageDigest digest;
+        final byte[] buf = new byte[512];
+        int pos;
+
+        State() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void write(Object v) {
+            if (v == null) { tag(T_NULL); return; }
+            if (v instanceof CharSequence cs) { tag(T_STRING); chars(cs); return; }
+            if (v instanceof Boolean b) { tag(T_BOOL); put(b ? (byte) 1 : (byte) 0); return; }
+            if (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte) {
+                tag(T_LONG); putLong(((Number) v).longValue()); return;
+            }
+            if (v instanceof Double || v instanceof Float) {
+                tag(T_DOUBLE); putLong(Double.doubleToLongBits(((Number) v).doubleValue())); return;
+            }
+            if (v instanceof Enum<?> e) { tag(T_ENUM); chars(e.name()); return; }
+            if (v instanceof Record r) { record(r); return; }
+            if (v instanceof Collection<?> c) {
+                tag(T_LIST); putInt(c.size());
+                for (Object o : c) write(o);
+                return;
+            }
+            if (v instanceof Map<?, ?> m) {
+                // Callers must pass sorted maps for canonical output; requests here are records/lists only.
+                tag(T_MAP); putInt(m.size());
+                for (var e : m.entrySet()) { write(e.getKey()); write(e.getValue()); }
+                return;
+            }
+            // Value types (LocalDate, UUID, BigDecimal…) hash by their canonical text form.
+            tag(T_OTHER); chars(v.toString());
+        }
+
+        private void record(Record r) {
+            Component[] comps = COMPONENTS.get(r.getClass());
+            tag(T_RECORD); putInt(comps.length);
+            for (Component c : comps) {
+                chars(c.name());
+                try {
+                    write(c.accessor().invoke(r));
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            }
+        }
+
+        /** Length (in chars) prefix, then UTF-8 bytes, encoded in place. */
+        private void chars(CharSequence s) {
+            int n = s.length();
+            putInt(n);
+            for (int i = 0; i < n; i++) {
+                char ch = s.charAt(i);
+                if (pos > buf.length - 4) flush();
+                if (ch < 0x80) {
+                    buf[pos++] = (byte) ch;
+                } else if (ch < 0x800) {
+                    buf[pos++] = (byte) (0xC0 | (ch >> 6));
+                    buf[pos++] = (byte) (0x80 | (ch & 0x3F));
+                } else if (Character.isHighSurrogate(ch) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(ch, s.charAt(++i));
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    buf[pos++] = (byte) (0xE0 | (ch >> 12));
+                    buf[pos++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (ch & 0x3F));
+                }
+            }
+        }
+
+        private void tag(byte t) { put(t); }
+
+        private void put(byte b) {
+            if (pos == buf.length) flush();
+            buf[pos++] = b;
+        }
+
+        private void putInt(int v) {
+            if (pos > buf.length - 4) flush();
+            buf[pos++] = (byte) (v >>> 24);
+            buf[pos++] = (byte) (v >>> 16);
+            buf[pos++] = (byte) (v >>> 8);
+            buf[pos++] = (byte) v;
+        }
+
+        private void putLong(long v) {
+            putInt((int) (v >>> 32));
+            putInt((int) v);
+        }
+
+        void flush() {
+            if (pos > 0) {
+                digest.update(buf, 0, pos);
+                pos = 0;
+            }
+        }
+    }
+}
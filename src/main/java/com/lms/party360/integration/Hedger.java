@@ -0,0 +1,131 @@
+package com.lms.party360.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedger
+ *
+ * Tail-latency hedging for idempotent upstream calls: if the primary has not answered after the observed
+ * p{@code percentile} latency (rolling window), a second identical call is fired and the first value wins;
+ * the loser is cancelled.
+ * - Delay comes from a {@link RollingLatencyHistogram} of attempt latencies, clamped to [minDelay, maxDelay];
+ *   no hedging until the window holds {@code minSamples} latencies. Every attempt is measured from the
+ *   original call start and recorded when it completes or is cancelled (a cancelled primary took at least
+ *   that long), so hedging does not hide the tail it is sized from.
+ * - Budget: every primary earns {@code budgetRatio} of a hedge credit (capped), every hedge spends one, so
+ *   hedges stay below that share of traffic even when the upstream is uniformly slow.
+ * - A failed hedge never wins; the primary's outcome (value or error) still stands.
+ *
+ * Metrics: {@code integration.hedge.calls{hedge, outcome=primary|hedged|denied}}, {@code integration.hedge.delay}.
+ */
+public final class Hedger {
+
+    private static final long CREDIT = 1_000;   // milli-credits per hedge
+    private static final long MAX_CREDITS = 100 * CREDIT;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final long minSamples;
+    private final long earnPerCall;
+    private final RollingLatencyHistogram latencies;
+    private final AtomicLong credits = new AtomicLong();
+
+    private final Counter primaries;
+    private final Counter hedges;
+    private final Counter denied;
+
+    public Hedger(String name, boolean enabled, double percentile, Duration minDelay, Duration maxDelay,
+                  double budgetRatio, long minSamples, MeterRegistry metrics) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.minSamples = minSamples;
+        this.earnPerCall = Math.round(budgetRatio * CREDIT);
+        this.latencies = new RollingLatencyHistogram(Duration.ofMinutes(1), 6);
+        if (metrics != null && enabled) {
+            this.primaries = counter(metrics, name, "primary");
+            this.hedges = counter(metrics, name, "hedged");
+            this.denied = counter(metrics, name, "denied");
+            Gauge.builder("integration.hedge.delay", this, h -> {
+                        Duration d = h.currentDelay();
+                        return d == null ? Double.NaN : d.toNanos() / 1e6;
+                    })
+                    .tag("hedge", name).baseUnit("milliseconds").register(metrics);
+        } else {
+            this.primaries = this.hedges = this.denied = null;
+        }
+    }
+
+    public static Hedger disabled() {
+        return new Hedger("disabled", false, 0.95, Duration.ZERO, Duration.ZERO, 0, Long.MAX_VALUE, null);
+    }
+
+    /** {@code call} must build a fresh upstream request on every invocation (it may run twice). */
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        if (!enabled) return Mono.defer(call);
+        return Mono.defer(() -> {
+            earn();
+            increment(primaries);
+            long start = System.nanoTime();
+            Mono<T> primary = timed(call, start);
+            Duration delay = currentDelay();
+            if (delay == null) return primary;
+
+            Mono<T> hedge = Mono.delay(delay).flatMap(tick -> {
+                if (!spend()) {
+                    increment(denied);
+                    return Mono.never();
+                }
+                increment(hedges);
+                return timed(call, start).onErrorResume(e -> Mono.never());
+            });
+            return Mono.firstWithSignal(primary, hedge);
+        });
+    }
+
+    /** Current hedge delay, or {@code null} while the window is still warming up. */
+    public Duration currentDelay() {
+        Duration q = latencies.quantile(percentile, minSamples);
+        if (q == null) return null;
+        if (q.compareTo(minDelay) < 0) return minDelay;
+        return q.compareTo(maxDelay) > 0 ? maxDelay : q;
+    }
+
+    /** Records the attempt's latency since {@code start} on completion or cancel; errors are not latencies. */
+    private <T> Mono<T> timed(Supplier<Mono<T>> call, long start) {
+        return Mono.defer(call).doFinally(signal -> {
+            if (signal != SignalType.ON_ERROR) latencies.record(System.nanoTime() - start);
+        });
+    }
+
+    private void earn() {
+        credits.getAndUpdate(c -> Math.min(MAX_CREDITS, c + earnPerCall));
+    }
+
+    private boolean spend() {
+        while (true) {
+            long c = credits.get();
+            if (c < CREDIT) return false;
+            if (credits.compareAndSet(c, c - CREDIT)) return true;
+        }
+    }
+
+    private static Counter counter(MeterRegistry metrics, String name, String outcome) {
+        return Counter.builder("integration.hedge.calls").tag("hedge", name).tag("outcome", outcome).register(metrics);
+    }
+
+    private static void increment(Counter c) {
+        if (c != null) c.increment();
+    }
+}
@@ -0,0 +1,99 @@
+package com.lms.party360.integration;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram over a sliding time window.
+ *
+ * Buckets grow geometrically by 10% from 100µs to ~2 minutes (≤10% relative error on quantiles); the window
+ * is split into {@code slots} sub-windows that are recycled lazily as time moves on, so old latencies age out
+ * without a background thread. Recording is two atomic increments; quantile reads scan all buckets and are
+ * meant for per-request use at modest rates (a few hundred buckets × slots).
+ */
+public final class RollingLatencyHistogram {
+
+    private static final double MIN_NANOS = 100_000;   // 100µs
+    private static final double GROWTH = 1.1;
+    private static final int BUCKETS = 150;            // 100µs · 1.1^150 ≈ 160s
+
+    private final long origin = System.nanoTime();
+    private final long slotNanos;
+    private final AtomicLongArray[] counts;
+    private final AtomicLong[] slotEpoch;
+
+    public RollingLatencyHistogram(Duration window, int slots) {
+        this.slotNanos = Math.max(1, window.toNanos() / slots);
+        this.counts = new AtomicLongArray[slots];
+        this.slotEpoch = new AtomicLong[slots];
+        for (int i = 0; i < slots; i++) {
+            counts[i] = new AtomicLongArray(BUCKETS);
+            slotEpoch[i] = new AtomicLong(-1);
+        }
+    }
+
+    public void record(long nanos) {
+        long epoch = epoch();
+        int slot = (int) Math.floorMod(epoch, (long) counts.length);
+        long seen = slotEpoch[slot].get();
+        if (seen != epoch && slotEpoch[slot].compareAndSet(seen, epoch)) {
+            AtomicLongArray c = counts[slot];
+            for (int i = 0; i < BUCKETS; i++) c.set(i, 0);
+        }
+        counts[slot].incrementAndGet(bucket(nanos));
+    }
+
+    /** Number of samples currently inside the window. */
+    public long count() {
+        long epoch = epoch();
+        long n = 0;
+        for (int s = 0; s < counts.length; s++) {
+            if (!live(s, epoch)) continue;
+            for (int i = 0; i < BUCKETS; i++) n += counts[s].get(i);
+        }
+        return n;
+    }
+
+    /** Upper bound of the bucket holding quantile {@code q}; {@code null} with fewer than {@code minSamples}. */
+    public Duration quantile(double q, long minSamples) {
+        long epoch = epoch();
+        long[] merged = new long[BUCKETS];
+        long total = 0;
+        for (int s = 0; s < counts.length; s++) {
+            if (!live(s, epoch)) continue;
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = counts[s].get(i);
+                merged[i] += c;
+                total += c;
+            }
+        }
+        if (total == 0 || total < minSamples) return null;
+        long rank = (long) Math.ceil(q * total);
+        long acc = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            acc += merged[i];
+            if (acc >= rank) return Duration.ofNanos((long) upperBound(i));
+        }
+        return Duration.ofNanos((long) upperBound(BUCKETS - 1));
+    }
+
+    private long epoch() {
+        return (System.nanoTime() - origin) / slotNanos;
+    }
+
+    private boolean live(int slot, long epoch) {
+        long e = slotEpoch[slot].get();
+        return e >= 0 && epoch - e < counts.length;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos <= MIN_NANOS) return 0;
+        int b = (int) Math.ceil(Math.log(nanos / MIN_NANOS) / Math.log(GROWTH));
+        return Math.min(b, BUCKETS - 1);
+    }
+
+    private static double upperBound(int bucket) {
+        return MIN_NANOS * Math.pow(GROWTH, bucket);
+    }
+}
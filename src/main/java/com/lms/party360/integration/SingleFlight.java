@@ -0,0 +1,68 @@
+package com.lms.party360.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight
+ *
+ * Coalesces concurrent identical upstream calls: the first caller for a key subscribes the real call, every
+ * caller that arrives while it is in flight joins the same Mono and receives the same value or error.
+ * The key is released as soon as the call terminates, so nothing is cached beyond the flight itself
+ * (retries after a failure hit the upstream again).
+ *
+ * Only use for idempotent reads/derivations (tokenize, KYC/OFAC lookups), keyed by everything that makes
+ * the response differ (tenant included). A joiner that cancels does not cancel the shared call.
+ *
+ * Metrics: {@code integration.singleflight.calls{flight, role=leader|joined}}, {@code integration.singleflight.inflight}.
+ */
+public final class SingleFlight<K> {
+
+    private final ConcurrentHashMap<K, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter joiners;
+
+    public SingleFlight(String name, MeterRegistry metrics) {
+        if (metrics != null) {
+            this.leaders = Counter.builder("integration.singleflight.calls")
+                    .tag("flight", name).tag("role", "leader").register(metrics);
+            this.joiners = Counter.builder("integration.singleflight.calls")
+                    .tag("flight", name).tag("role", "joined").register(metrics);
+            Gauge.builder("integration.singleflight.inflight", inFlight, ConcurrentHashMap::size)
+                    .tag("flight", name).register(metrics);
+        } else {
+            this.leaders = null;
+            this.joiners = null;
+        }
+    }
+
+    /** Lazily joins (or starts) the flight for {@code key} at subscription time. */
+    @SuppressWarnings("unchecked")
+    public <V> Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Mono<V> shared = (Mono<V>) inFlight.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                AtomicReference<Mono<?>> self = new AtomicReference<>();
+                Mono<V> flight = Mono.defer(call)
+                        .doFinally(signal -> inFlight.remove(k, self.get()))
+                        .cache();
+                self.set(flight);
+                return flight;
+            });
+            Counter c = leader[0] ? leaders : joiners;
+            if (c != null) c.increment();
+            return shared;
+        });
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,137 @@
+package com.lms.party360.integration.ofac;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Name normalization and similarity primitives shared by the SDN index and the query side, so both sides
+ * are always normalized identically.
+ *
+ *   normalize  - strip diacritics, upper-case, punctuation → space, drop noise tokens, collapse whitespace
+ *   sorted     - tokens sorted alphabetically ("HUSSEIN SADDAM" == "SADDAM HUSSEIN")
+ *   phonetic   - Double Metaphone primary + alternate key per token
+ *   trigrams   - padded character 3-grams of each token
+ *   score      - Jaro-Winkler over the full, sorted and token-aligned forms (max of the three)
+ */
+final class NameMatcher {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^A-Z0-9 ]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    /** Honorifics / legal forms / particles that carry no identity and only add noise to fuzzy scores. */
+    private static final Set<String> NOISE = Set.of(
+            "MR", "MRS", "MS", "DR", "SHEIKH", "HAJI", "AL", "EL", "BIN", "IBN", "DE", "LA", "VAN", "VON",
+            "LTD", "LLC", "INC", "CO", "CORP", "SA", "GMBH", "THE", "OF", "AND");
+
+    /** Thread-safe: doubleMetaphone(String, boolean) keeps no per-call state. */
+    private static final DoubleMetaphone METAPHONE = new DoubleMetaphone();
+
+    private NameMatcher() {}
+
+    static String normalize(String raw) {
+        if (raw == null) return "";
+        String s = MARKS.matcher(Normalizer.normalize(raw, Normalizer.Form.NFD)).replaceAll("");
+        s = NON_ALNUM.matcher(s.toUpperCase(Locale.ROOT)).replaceAll(" ");
+        List<String> kept = new ArrayList<>();
+        for (String t : SPACES.split(s.trim())) {
+            if (!t.isEmpty() && !NOISE.contains(t)) kept.add(t);
+        }
+        return String.join(" ", kept);
+    }
+
+    static String[] tokens(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    static String sorted(String[] tokens) {
+        String[] copy = tokens.clone();
+        Arrays.sort(copy);
+        return String.join(" ", copy);
+    }
+
+    /** Distinct Double Metaphone keys (primary and alternate) of all tokens. */
+    static Set<String> phoneticKeys(String[] tokens) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String t : tokens) {
+            if (t.length() < 2) continue;
+            String p = METAPHONE.doubleMetaphone(t, false);
+            String a = METAPHONE.doubleMetaphone(t, true);
+            if (p != null && !p.isEmpty()) keys.add(p);
+            if (a != null && !a.isEmpty()) keys.add(a);
+        }
+        return keys;
+    }
+
+    /** Distinct padded 3-grams ("^AB", "ABC", "BC$") of all tokens. */
+    static Set<String> trigrams(String[] tokens) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String t : tokens) {
+            String p = "^" + t + "$";
+            for (int i = 0; i + 3 <= p.length(); i++) grams.add(p.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /** Best of whole-string, token-sorted and token-aligned Jaro-Winkler. Inputs are normalized forms. */
+    static double score(String q, String qSorted, String[] qTokens, String n, String nSorted, String[] nTokens) {
+        double best = Math.max(jaroWinkler(q, n), jaroWinkler(qSorted, nSorted));
+        return Math.max(best, tokenAligned(qTokens, nTokens));
+    }
+
+    /**
+     * Each query token against its best-matching name token, averaged and weighted towards the shorter side
+     * (a two-token query fully inside a four-token alias still scores high, but less than an exact match).
+     */
+    static double tokenAligned(String[] q, String[] n) {
+        if (q.length == 0 || n.length == 0) return 0;
+        double sum = 0;
+        for (String qt : q) {
+            double best = 0;
+            for (String nt : n) best = Math.max(best, jaroWinkler(qt, nt));
+            sum += best;
+        }
+        double coverage = (double) Math.min(q.length, n.length) / Math.max(q.length, n.length);
+        return (sum / q.length) * (0.85 + 0.15 * coverage);
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) return a.isEmpty() ? 0 : 1;
+        int la = a.length(), lb = b.length();
+        if (la == 0 || lb == 0) return 0;
+        int window = Math.max(0, Math.max(la, lb) / 2 - 1);
+        boolean[] ma = new boolean[la], mb = new boolean[lb];
+        int matches = 0;
+        for (int i = 0; i < la; i++) {
+            int from = Math.max(0, i - window), to = Math.min(lb - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!mb[j] && a.charAt(i) == b.charAt(j)) {
+                    ma[i] = mb[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) return 0;
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < la; i++) {
+            if (!ma[i]) continue;
+            while (!mb[j]) j++;
+            if (a.charAt(i) != b.charAt(j)) transpositions++;
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / la + m / lb + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        for (int i = 0; i < Math.min(4, Math.min(la, lb)) && a.charAt(i) == b.charAt(i); i++) prefix++;
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
@@ -1,4 +1,165 @@
 package com.lms.party360.integration.ofac;
 
-public class OfacClient {
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * OfacClient
+ *
+ * In-process OFAC screening against the SDN / consolidated list files in {@code listDir} (OfacMapper format).
+ * - The list lives in an immutable SdnIndex behind an AtomicReference: a screen reads one snapshot, and a
+ *   reload builds the next index completely off the request path before swapping it in.
+ * - A WatchService on listDir reloads after files are created/modified/moved in, once the directory has
+ *   been quiet for {@code settle} (list updates are several files).
+ * - A reload that fails or yields no entries keeps the current list; ofac.list.age shows how stale it is.
+ * Screening is pure CPU over the snapshot; ofac.screen.latency tracks it.
+ */
+@Slf4j
+public class OfacClient implements Closeable {
+
+    private final Path listDir;
+    private final Duration settle;
+    private final double threshold;
+    private final int maxHits;
+    private final AtomicReference<SdnIndex> index = new AtomicReference<>(SdnIndex.empty());
+
+    private final Timer latency;
+    private final Counter reloads;
+    private final Counter reloadFailures;
+
+    private final WatchService watcher;
+    private final Thread watchThread;
+
+    public OfacClient(Path listDir, Duration settle, double threshold, int maxHits, MeterRegistry metrics)
+            throws IOException {
+        this.listDir = listDir;
+        this.settle = settle;
+        this.threshold = threshold;
+        this.maxHits = maxHits;
+        this.latency = Timer.builder("ofac.screen.latency").publishPercentileHistogram().register(metrics);
+        this.reloads = metrics.counter("ofac.list.reloads", "result", "ok");
+        this.reloadFailures = metrics.counter("ofac.list.reloads", "result", "failed");
+        Gauge.builder("ofac.list.entries", index, r -> r.get().size()).register(metrics);
+        Gauge.builder("ofac.list.age", index,
+                        r -> Duration.between(r.get().loadedAt(), Instant.now()).toSeconds())
+                .baseUnit("seconds").register(metrics);
+
+        reload();
+        this.watcher = listDir.getFileSystem().newWatchService();
+        listDir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchThread = Thread.ofPlatform().daemon().name("ofac-list-watch").start(this::watchLoop);
+    }
+
+    public record Result(String listVersion, List<SdnIndex.Hit> hits) {
+        public boolean clear() {
+            return hits.isEmpty();
+        }
+    }
+
+    /** Hits at or above the configured threshold, best first; empty when the list is clear. */
+    public Result screen(String name, LocalDate dob, String country) {
+        SdnIndex snapshot = index.get();
+        long start = System.nanoTime();
+        try {
+            return new Result(snapshot.version(),
+                    snapshot.search(new SdnIndex.Query(name, dob, country), threshold, maxHits));
+        } finally {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** False until a non-empty list has been loaded. */
+    public boolean ready() {
+        return index.get().size() > 0;
+    }
+
+    public SdnIndex current() {
+        return index.get();
+    }
+
+    /** Builds a new index from listDir and swaps it in; keeps the current one on failure. */
+    public synchronized boolean reload() {
+        try {
+            List<SdnEntry> entries = OfacMapper.load(listDir);
+            if (entries.isEmpty()) {
+                log.warn("No OFAC entries found in {}; keeping list {}", listDir, index.get().version());
+                reloadFailures.increment();
+                return false;
+            }
+            long started = System.nanoTime();
+            SdnIndex next = SdnIndex.build(entries, version(entries.size()));
+            SdnIndex prev = index.getAndSet(next);
+            reloads.increment();
+            log.info("OFAC list {} active ({} entries, {} names, indexed in {} ms; was {})", next.version(),
+                    next.size(), next.nameCount(), (System.nanoTime() - started) / 1_000_000, prev.version());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            reloadFailures.increment();
+            log.error("OFAC list reload from {} failed; keeping list {}", listDir, index.get().version(), e);
+            return false;
+        }
+    }
+
+    /** Newest file modification time + entry count, e.g. 2026-10-15T06:00:00Z/17843. */
+    private String version(int entries) throws IOException {
+        FileTime newest = FileTime.fromMillis(0);
+        try (Stream<Path> files = Files.list(listDir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                FileTime t = Files.getLastModifiedTime(p);
+                if (t.compareTo(newest) > 0) newest = t;
+            }
+        }
+        return newest.toInstant() + "/" + entries;
+    }
+
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watcher.take();
+                // Any event (including OVERFLOW) may mean new list files.
+                List<WatchEvent<?>> events = key.pollEvents();
+                if (!key.reset()) {
+                    log.error("OFAC list directory {} is no longer watchable", listDir);
+                    return;
+                }
+                if (events.isEmpty()) continue;
+                // Debounce: wait until no further events arrive for `settle`, then reload once.
+                WatchKey more;
+                while ((more = watcher.poll(settle.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    if (!more.reset()) return;
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchThread.interrupt();
+        watcher.close();
+    }
 }
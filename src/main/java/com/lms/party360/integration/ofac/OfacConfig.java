@@ -0,0 +1,63 @@
+package com.lms.party360.integration.ofac;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Local OFAC screening (ofac.local.*). When enabled, OfacClient loads the list files from list-dir at start-up
+ * and hot-swaps them whenever the directory changes (e.g. a sidecar or cron drops the daily files there).
+ */
+@Configuration
+@EnableConfigurationProperties(OfacConfig.OfacProps.class)
+public class OfacConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "ofac.local", name = "enabled", havingValue = "true")
+    public OfacClient ofacClient(OfacProps props, ObjectProvider<MeterRegistry> metrics) throws IOException {
+        return new OfacClient(props.getListDir(), props.getSettle(), props.getThreshold(), props.getMaxHits(),
+                metrics.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Getter
+    @Setter
+    @Validated
+    @ConfigurationProperties(prefix = "ofac.local")
+    public static class OfacProps {
+
+        /** Screen in-process against the downloaded list files. */
+        private boolean enabled = false;
+
+        /** Directory holding sdn.csv/alt.csv/add.csv and/or cons_prim.csv/cons_alt.csv/cons_add.csv. */
+        @NotNull
+        private Path listDir = Path.of("/var/lib/party360/ofac");
+
+        /** Quiet period after the last file event before the list is reloaded. */
+        @NotNull
+        private Duration settle = Duration.ofSeconds(5);
+
+        /** Minimum adjusted score for a hit; anything at or above goes to the vendor for confirmation. */
+        @DecimalMin("0.5") @DecimalMax("1.0")
+        private double threshold = 0.88;
+
+        /** Hits returned per screen. */
+        @Min(1)
+        private int maxHits = 10;
+    }
+}
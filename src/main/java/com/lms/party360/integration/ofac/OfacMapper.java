@@ -1,4 +1,220 @@
 package com.lms.party360.integration.ofac;
 
-public class OfacMapper {
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OfacMapper
+ *
+ * Reads the OFAC legacy CSV distribution from a directory into {@link SdnEntry} values:
+ *   SDN list:           sdn.csv, alt.csv, add.csv
+ *   Consolidated list:  cons_prim.csv, cons_alt.csv, cons_add.csv
+ * Files are headerless, "-0-" marks an empty field, and individuals are named "LAST, First". Dates of birth,
+ * nationality and citizenship only exist inside the free-text remarks and are extracted from there; address
+ * and nationality country names are mapped to ISO alpha-2 codes. Missing files are skipped, so a directory
+ * may hold either list or both.
+ */
+@Slf4j
+public final class OfacMapper {
+
+    private static final String NULL = "-0-";
+
+    private static final Pattern DOB = Pattern.compile(
+            "DOB\\s+(?:circa\\s+)?((?:\\d{1,2}\\s+)?(?:[A-Za-z]{3}\\s+)?\\d{4})(?:\\s+to\\s+(\\d{4}))?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern NATIONALITY = Pattern.compile(
+            "(?:nationality|citizen)\\s+([A-Za-z ,.'()-]+?)(?:;|\\.$|$)", Pattern.CASE_INSENSITIVE);
+    private static final DateTimeFormatter DAY_MONTH_YEAR = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+
+    /** Upper-cased English country names (plus common list spellings) → ISO alpha-2. */
+    private static final Map<String, String> COUNTRY_CODES = countryCodes();
+
+    private OfacMapper() {}
+
+    public static List<SdnEntry> load(Path dir) throws IOException {
+        List<SdnEntry> out = new ArrayList<>();
+        out.addAll(load(dir, "SDN", "sdn.csv", "alt.csv", "add.csv"));
+        out.addAll(load(dir, "CONS", "cons_prim.csv", "cons_alt.csv", "cons_add.csv"));
+        return out;
+    }
+
+    private static List<SdnEntry> load(Path dir, String list, String prim, String alt, String add) throws IOException {
+        Path primary = dir.resolve(prim);
+        if (!Files.isRegularFile(primary)) return List.of();
+
+        Map<String, Builder> byId = new LinkedHashMap<>();
+        // ent_num, name, type, program, title, call sign, vessel type, tonnage, GRT, flag, owner, remarks
+        read(primary, f -> {
+            if (f.size() < 4) return;
+            Builder b = byId.computeIfAbsent(f.get(0), id -> new Builder(list + "-" + id));
+            if (f.get(1) != null) b.names.add(0, f.get(1));
+            b.type = f.get(2) == null ? "entity" : f.get(2).toLowerCase(Locale.ROOT);
+            b.programs = f.get(3);
+            if (f.size() > 11 && f.get(11) != null) remarks(b, f.get(11));
+        });
+        // ent_num, alt_num, alt_type, alt_name, remarks
+        read(dir.resolve(alt), f -> {
+            Builder b = f.size() > 3 ? byId.get(f.get(0)) : null;
+            if (b != null && f.get(3) != null) b.names.add(f.get(3));
+        });
+        // ent_num, add_num, address, city/state/postal, country, remarks
+        read(dir.resolve(add), f -> {
+            Builder b = f.size() > 4 ? byId.get(f.get(0)) : null;
+            if (b != null) addCountry(b, f.get(4));
+        });
+
+        List<SdnEntry> entries = new ArrayList<>(byId.size());
+        for (Builder b : byId.values()) {
+            if (!b.names.isEmpty()) entries.add(b.build());
+        }
+        log.info("Loaded {} {} entries from {}", entries.size(), list, dir);
+        return entries;
+    }
+
+    private static void remarks(Builder b, String remarks) {
+        Matcher dob = DOB.matcher(remarks);
+        while (dob.find()) {
+            String value = dob.group(1).trim();
+            int year = Integer.parseInt(value.substring(value.length() - 4));
+            b.birthYears.add(year);
+            if (dob.group(2) != null) {
+                for (int y = year + 1; y <= Integer.parseInt(dob.group(2)); y++) b.birthYears.add(y);
+            } else if (value.length() > 8) {
+                try {
+                    b.birthDates.add(LocalDate.parse(value, DAY_MONTH_YEAR));
+                } catch (DateTimeParseException ignored) {
+                    // "Jan 1960": month + year only, the year is already recorded
+                }
+            }
+        }
+        Matcher nat = NATIONALITY.matcher(remarks);
+        while (nat.find()) addCountry(b, nat.group(1));
+    }
+
+    private static void addCountry(Builder b, String name) {
+        String code = countryCode(name);
+        if (code != null) b.countries.add(code);
+    }
+
+    /** ISO alpha-2 for a code or English country name; null when unknown. */
+    public static String countryCode(String nameOrCode) {
+        if (nameOrCode == null || nameOrCode.isBlank()) return null;
+        String key = nameOrCode.trim().toUpperCase(Locale.ROOT);
+        if (key.length() == 2) return key;
+        return COUNTRY_CODES.get(key);
+    }
+
+    private static Map<String, String> countryCodes() {
+        Map<String, String> m = new HashMap<>();
+        for (String code : Locale.getISOCountries()) {
+            m.put(Locale.of("", code).getDisplayCountry(Locale.ENGLISH).toUpperCase(Locale.ROOT), code);
+        }
+        m.put("RUSSIA", "RU");
+        m.put("IRAN", "IR");
+        m.put("SYRIA", "SY");
+        m.put("NORTH KOREA", "KP");
+        m.put("KOREA, NORTH", "KP");
+        m.put("SOUTH KOREA", "KR");
+        m.put("KOREA, SOUTH", "KR");
+        m.put("BURMA", "MM");
+        m.put("VENEZUELA", "VE");
+        m.put("BOLIVIA", "BO");
+        m.put("TANZANIA", "TZ");
+        m.put("VIETNAM", "VN");
+        m.put("LAOS", "LA");
+        m.put("MOLDOVA", "MD");
+        m.put("UNITED STATES", "US");
+        m.put("UNITED KINGDOM", "GB");
+        m.put("CONGO, DEMOCRATIC REPUBLIC OF THE", "CD");
+        m.put("WEST BANK", "PS");
+        m.put("GAZA", "PS");
+        return Map.copyOf(m);
+    }
+
+    // -------------------- CSV --------------------
+
+    private static void read(Path file, Consumer<List<String>> row) throws IOException {
+        if (!Files.isRegularFile(file)) return;
+        // InputStreamReader replaces malformed bytes instead of failing the whole load (older files are cp1252).
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank() || line.charAt(0) == '\u001a') continue;   // trailing EOF marker
+                row.accept(fields(line));
+            }
+        }
+    }
+
+    /** One CSV line: comma separated, optional double quotes with "" escapes; "-0-" becomes null. */
+    static List<String> fields(String line) {
+        List<String> out = new ArrayList<>(12);
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                out.add(value(cur));
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        out.add(value(cur));
+        return out;
+    }
+
+    private static String value(StringBuilder sb) {
+        String v = sb.toString().trim();
+        return v.isEmpty() || NULL.equals(v) ? null : v;
+    }
+
+    private static final class Builder {
+        final String uid;
+        final List<String> names = new ArrayList<>(2);
+        final Set<LocalDate> birthDates = new LinkedHashSet<>();
+        final Set<Integer> birthYears = new LinkedHashSet<>();
+        final Set<String> countries = new LinkedHashSet<>();
+        String type = "entity";
+        String programs;
+
+        Builder(String uid) {
+            this.uid = uid;
+        }
+
+        SdnEntry build() {
+            return new SdnEntry(uid, type, programs, List.copyOf(names), Set.copyOf(birthDates),
+                    Set.copyOf(birthYears), Set.copyOf(countries));
+        }
+    }
 }
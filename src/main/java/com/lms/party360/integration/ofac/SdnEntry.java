@@ -0,0 +1,23 @@
+package com.lms.party360.integration.ofac;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One sanctioned party from the SDN or consolidated (non-SDN) list, as loaded by OfacMapper.
+ *
+ * @param uid         list-qualified entry number, e.g. SDN-36 or CONS-17120
+ * @param type        individual / entity / vessel / aircraft
+ * @param names       primary name first, then a.k.a./f.k.a. aliases
+ * @param birthDates  exact dates of birth from the remarks (individuals)
+ * @param birthYears  birth years, including year-only and circa DOBs
+ * @param countries   ISO 3166 alpha-2 codes from addresses, nationality and citizenship
+ */
+public record SdnEntry(String uid, String type, String programs, List<String> names,
+                       Set<LocalDate> birthDates, Set<Integer> birthYears, Set<String> countries) {
+
+    public String primaryName() {
+        return names.get(0);
+    }
+}
@@ -0,0 +1,173 @@
+package com.lms.party360.integration.ofac;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SdnIndex
+ *
+ * Immutable, in-memory search index over one loaded list version. Every name (primary and aliases) is stored
+ * normalized, token-sorted and tokenized, and posted into two inverted indexes:
+ *   - Double Metaphone keys per token  → catches spelling/transliteration variants (MOHAMMED / MUHAMAD)
+ *   - padded character 3-grams         → catches typos, dropped letters and partial names
+ * A query collects candidates from both (3-grams need a minimum overlap, so common grams do not flood the
+ * candidate set), scores each candidate name with {@link NameMatcher#score} and keeps the best name per entry.
+ * The final score adds a DOB/country boost: exact DOB +0.08, birth year +0.05, shared country +0.03. It never
+ * lowers the name score: self-reported DOBs are unreliable, and a close name must not screen CLEAR because of one.
+ *
+ * Instances are never mutated after {@link #build}; OfacClient swaps whole instances atomically.
+ */
+public final class SdnIndex {
+
+    /** Share of the query's 3-grams a name must contain to become a candidate without a phonetic hit. */
+    private static final double MIN_GRAM_OVERLAP = 0.4;
+
+    private record Name(int entry, String raw, String full, String sorted, String[] tokens) {}
+
+    public record Query(String name, LocalDate dob, String country) {}
+
+    public record Hit(SdnEntry entry, String matchedName, double nameScore, double score) {}
+
+    private final String version;
+    private final Instant loadedAt;
+    private final List<SdnEntry> entries;
+    private final Name[] names;
+    private final Map<String, int[]> phonetic;
+    private final Map<String, int[]> grams;
+
+    private SdnIndex(String version, List<SdnEntry> entries, Name[] names,
+                     Map<String, int[]> phonetic, Map<String, int[]> grams) {
+        this.version = version;
+        this.loadedAt = Instant.now();
+        this.entries = entries;
+        this.names = names;
+        this.phonetic = phonetic;
+        this.grams = grams;
+    }
+
+    public static SdnIndex empty() {
+        return new SdnIndex("empty", List.of(), new Name[0], Map.of(), Map.of());
+    }
+
+    public static SdnIndex build(List<SdnEntry> entries, String version) {
+        List<Name> names = new ArrayList<>(entries.size() * 2);
+        Map<String, IntList> phonetic = new HashMap<>();
+        Map<String, IntList> grams = new HashMap<>();
+        for (int e = 0; e < entries.size(); e++) {
+            for (String raw : entries.get(e).names()) {
+                String full = NameMatcher.normalize(raw);
+                if (full.isEmpty()) continue;
+                String[] tokens = NameMatcher.tokens(full);
+                int id = names.size();
+                names.add(new Name(e, raw, full, NameMatcher.sorted(tokens), tokens));
+                for (String k : NameMatcher.phoneticKeys(tokens)) phonetic.computeIfAbsent(k, x -> new IntList()).add(id);
+                for (String g : NameMatcher.trigrams(tokens)) grams.computeIfAbsent(g, x -> new IntList()).add(id);
+            }
+        }
+        return new SdnIndex(version, List.copyOf(entries), names.toArray(Name[]::new),
+                freeze(phonetic), freeze(grams));
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int nameCount() {
+        return names.length;
+    }
+
+    /** Hits with score >= {@code threshold}, best first, at most {@code limit}. */
+    public List<Hit> search(Query query, double threshold, int limit) {
+        String full = NameMatcher.normalize(query.name());
+        if (full.isEmpty() || names.length == 0) return List.of();
+        String[] tokens = NameMatcher.tokens(full);
+        String sorted = NameMatcher.sorted(tokens);
+
+        // Candidate generation: phonetic hits count as a full match, 3-grams accumulate.
+        Set<String> qGrams = NameMatcher.trigrams(tokens);
+        int need = Math.max(1, (int) Math.ceil(qGrams.size() * MIN_GRAM_OVERLAP));
+        int[] counts = new int[names.length];
+        IntList touched = new IntList();
+        for (String k : NameMatcher.phoneticKeys(tokens)) {
+            for (int id : phonetic.getOrDefault(k, EMPTY)) {
+                if (counts[id] == 0) touched.add(id);
+                counts[id] = Math.max(counts[id], need);
+            }
+        }
+        for (String g : qGrams) {
+            for (int id : grams.getOrDefault(g, EMPTY)) {
+                if (counts[id] == 0) touched.add(id);
+                counts[id]++;
+            }
+        }
+
+        // Score: best name per entry, then DOB/country adjustment.
+        Map<Integer, Hit> best = new HashMap<>();
+        for (int i = 0; i < touched.size; i++) {
+            int id = touched.values[i];
+            if (counts[id] < need) continue;
+            Name n = names[id];
+            double nameScore = NameMatcher.score(full, sorted, tokens, n.full(), n.sorted(), n.tokens());
+            Hit prior = best.get(n.entry());
+            if (prior != null && prior.nameScore() >= nameScore) continue;
+            SdnEntry entry = entries.get(n.entry());
+            double score = Math.min(1.0, nameScore + adjustment(entry, query));
+            best.put(n.entry(), new Hit(entry, n.raw(), nameScore, score));
+        }
+        return best.values().stream()
+                .filter(h -> h.score() >= threshold)
+                .sorted(Comparator.comparingDouble(Hit::score).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    static double adjustment(SdnEntry entry, Query query) {
+        double adj = 0;
+        LocalDate dob = query.dob();
+        if (dob != null && !entry.birthYears().isEmpty()) {
+            if (entry.birthDates().contains(dob)) {
+                adj += 0.08;
+            } else if (entry.birthYears().contains(dob.getYear())) {
+                adj += 0.05;
+            }
+        }
+        String country = OfacMapper.countryCode(query.country());
+        if (country != null && entry.countries().contains(country)) adj += 0.03;
+        return adj;
+    }
+
+    // -------------------- Posting lists --------------------
+
+    private static final int[] EMPTY = new int[0];
+
+    private static Map<String, int[]> freeze(Map<String, IntList> lists) {
+        Map<String, int[]> out = new HashMap<>(lists.size() * 2);
+        lists.forEach((k, v) -> out.put(k, Arrays.copyOf(v.values, v.size)));
+        return out;
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+    }
+}
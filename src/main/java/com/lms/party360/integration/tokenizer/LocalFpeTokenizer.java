@@ -0,0 +1,131 @@
+package com.lms.party360.integration.tokenizer;
+
+import com.lms.party360.integration.tokenizer.fpe.FF1;
+import com.lms.party360.integration.tokenizer.fpe.FF3_1;
+import com.lms.party360.integration.tokenizer.fpe.FpeCipher;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LocalFpeTokenizer
+ *
+ * In-process deterministic tokenization (tokenization.vault.mode=LOCAL): FF1 or FF3-1 over the digits, so
+ * the create path has no network hop per value.
+ * - Data keys are generated and wrapped by Vault Transit; only the wrapped form lives in configuration.
+ *   They are unwrapped once at startup and held in memory (never logged, never persisted).
+ * - Tokens are self-describing: {@code fpe:v<version>:<digits>}. New tokens use the active version; any
+ *   loaded version can still detokenize, so rotation is add-key → switch active → re-tokenize at leisure.
+ *   Until rows are re-tokenized, dedupe also matches {@link #previousTokens} (one per older loaded version).
+ * - The tweak is derived from (tenant, transformation), so the same SSN yields different tokens per tenant.
+ */
+public final class LocalFpeTokenizer {
+
+    public enum Algorithm { FF1, FF3_1 }
+
+    static final String PREFIX = "fpe:v";
+
+    private final Map<Integer, FpeCipher> ciphers;
+    private final int activeVersion;
+    private final List<Integer> olderVersions;
+
+    public LocalFpeTokenizer(Algorithm algorithm, Map<Integer, byte[]> dataKeys, int activeVersion) {
+        if (!dataKeys.containsKey(activeVersion)) {
+            throw new IllegalArgumentException("No data key for active version " + activeVersion);
+        }
+        Map<Integer, FpeCipher> m = new HashMap<>();
+        dataKeys.forEach((version, key) -> m.put(version, switch (algorithm) {
+            case FF1   -> new FF1(key, 10);
+            case FF3_1 -> new FF3_1(key, 10);
+        }));
+        this.ciphers = Map.copyOf(m);
+        this.activeVersion = activeVersion;
+        this.olderVersions = dataKeys.keySet().stream()
+                .filter(v -> v != activeVersion)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+    }
+
+    public String tokenize(String digits, String tenant, String transformation) {
+        String ct = ciphers.get(activeVersion).encrypt(digits, tweak(tenant, transformation));
+        return PREFIX + activeVersion + ":" + ct;
+    }
+
+    /** Tokens of {@code digits} under every loaded non-active version, newest first. */
+    public List<String> previousTokens(String digits, String tenant, String transformation) {
+        byte[] tweak = tweak(tenant, transformation);
+        List<String> out = new ArrayList<>(olderVersions.size());
+        for (int version : olderVersions) {
+            out.add(PREFIX + version + ":" + ciphers.get(version).encrypt(digits, tweak));
+        }
+        return out;
+    }
+
+    public String detokenize(String token, String tenant, String transformation) {
+        int sep = token.indexOf(':', PREFIX.length());
+        if (!token.startsWith(PREFIX) || sep < 0) throw new IllegalArgumentException("Not a LOCAL FPE token");
+        int version = Integer.parseInt(token, PREFIX.length(), sep, 10);
+        FpeCipher cipher = ciphers.get(version);
+        if (cipher == null) throw new IllegalStateException("Data key version " + version + " is not loaded");
+        return cipher.decrypt(token.substring(sep + 1), tweak(tenant, transformation));
+    }
+
+    public int activeVersion() {
+        return activeVersion;
+    }
+
+    /** 56-bit tweak (the FF3-1 size; FF1 accepts it as is) = SHA-256(tenant 0x00 transformation)[0..7). */
+    static byte[] tweak(String tenant, String transformation) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update((tenant == null ? "" : tenant).getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            sha.update(transformation.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(sha.digest(), 7);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ---------- Startup key unwrap ----------
+
+    /**
+     * Unwraps every configured data key via Transit decrypt under {@code kekName}:
+     *   POST /v1/transit/decrypt/{kek}  { "ciphertext":"vault:v1:..." }  →  { "data": { "plaintext":"<b64 key>" } }
+     * Fails startup if any key cannot be unwrapped; a half-loaded keyring would mint unreadable tokens.
+     */
+    public static Map<Integer, byte[]> unwrapDataKeys(WebClient vault, String kekName,
+                                                      Map<Integer, String> wrappedKeys, Duration timeout) {
+        Map<Integer, byte[]> out = new HashMap<>();
+        wrappedKeys.forEach((version, ciphertext) -> {
+            DecryptResponse resp = vault.post()
+                    .uri("/v1/transit/decrypt/{kek}", kekName)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(BodyInserters.fromValue(Map.of("ciphertext", ciphertext)))
+                    .retrieve()
+                    .bodyToMono(DecryptResponse.class)
+                    .block(timeout);
+            if (resp == null || resp.data == null || resp.data.plaintext == null) {
+                throw new IllegalStateException("Vault returned no plaintext for FPE data key v" + version);
+            }
+            out.put(version, Base64.getDecoder().decode(resp.data.plaintext));
+        });
+        return out;
+    }
+
+    private record DecryptResponse(Data data) {
+        private record Data(String plaintext) {}
+    }
+}
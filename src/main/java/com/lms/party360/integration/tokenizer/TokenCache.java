@@ -0,0 +1,171 @@
+package com.lms.party360.integration.tokenizer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * TokenCache
+ *
+ * Optional in-memory cache for deterministic SSN/EIN tokens, so dedupe lookups and re-screens of the same
+ * person skip the Vault round trip.
+ * - Key: (tenant, transformation, HMAC-SHA256(digits)) — plaintext digits are never stored or used as a key
+ * - Value: token sealed with AES-GCM (AAD = key), so a heap dump does not expose a digits→token table
+ * - Both secrets are generated per process and never leave memory; rotating them empties the cache
+ * - Bounded size + TTL; explicit invalidation when Vault transformation keys rotate (VaultKeyRotationWatcher)
+ */
+@Slf4j
+public class TokenCache {
+
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private final boolean enabled;
+    private final Cache<Key, byte[]> cache;
+    private final SecureRandom random = new SecureRandom();
+    private volatile Secrets secrets;
+
+    public record Key(String tenant, String transformation, String digitsMac) {}
+
+    /** Published by VaultKeyRotationWatcher after a Vault key rotation; {@code transformation == null} means all. */
+    public record KeysRotated(String transformation) {}
+
+    public TokenCache(boolean enabled, long maxEntries, Duration ttl, MeterRegistry metrics) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.secrets = Secrets.generate();
+        if (enabled && metrics != null) {
+            CaffeineCacheMetrics.monitor(metrics, cache, "tokenization.cache");
+        }
+    }
+
+    public static TokenCache disabled() {
+        return new TokenCache(false, 1, Duration.ofSeconds(1), null);
+    }
+
+    public String get(String tenant, String transformation, String digits) {
+        if (!enabled) return null;
+        Secrets s = secrets;
+        Key key = key(s, tenant, transformation, digits);
+        byte[] sealed = cache.getIfPresent(key);
+        return sealed == null ? null : open(s, key, sealed);
+    }
+
+    public void put(String tenant, String transformation, String digits, String token) {
+        if (!enabled || token == null) return;
+        Secrets s = secrets;
+        Key key = key(s, tenant, transformation, digits);
+        cache.put(key, seal(s, key, token));
+    }
+
+    /**
+     * The HMAC-based key for a value, for callers that need a plaintext-free identity (e.g. SingleFlight keys).
+     * Computed under the current secrets even when the cache is disabled; stable until {@link #invalidateAll}.
+     */
+    public Key keyFor(String tenant, String transformation, String digits) {
+        return key(secrets, tenant, transformation, digits);
+    }
+
+    /** Drops every token produced by the given transformation (all tenants). */
+    public void invalidateTransformation(String transformation) {
+        cache.asMap().keySet().removeIf(k -> k.transformation().equals(transformation));
+    }
+
+    public void invalidateTenant(String tenant) {
+        cache.asMap().keySet().removeIf(k -> k.tenant().equals(tenant));
+    }
+
+    /** Full flush plus fresh HMAC/AES secrets. */
+    public void invalidateAll() {
+        this.secrets = Secrets.generate();
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    public void onKeysRotated(KeysRotated event) {
+        log.info("Vault key rotation: invalidating token cache (transformation={})",
+                event.transformation() == null ? "*" : event.transformation());
+        if (event.transformation() == null) invalidateAll();
+        else invalidateTransformation(event.transformation());
+    }
+
+    // ---------- Crypto ----------
+
+    private static Key key(Secrets s, String tenant, String transformation, String digits) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(s.macKey);
+            mac.update(Objects.toString(tenant, "").getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(transformation.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            byte[] tag = mac.doFinal(digits.getBytes(StandardCharsets.US_ASCII));
+            return new Key(Objects.toString(tenant, ""), transformation, HexFormat.of().formatHex(tag));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    }
+
+    private byte[] seal(Secrets s, Key key, String token) {
+        try {
+            byte[] iv = new byte[GCM_IV_BYTES];
+            random.nextBytes(iv);
+            Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+            c.init(Cipher.ENCRYPT_MODE, s.aesKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            c.updateAAD(key.digitsMac().getBytes(StandardCharsets.US_ASCII));
+            byte[] ct = c.doFinal(token.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.allocate(iv.length + ct.length).put(iv).put(ct).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM unavailable", e);
+        }
+    }
+
+    private String open(Secrets s, Key key, byte[] sealed) {
+        try {
+            Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+            c.init(Cipher.DECRYPT_MODE, s.aesKey, new GCMParameterSpec(GCM_TAG_BITS, sealed, 0, GCM_IV_BYTES));
+            c.updateAAD(key.digitsMac().getBytes(StandardCharsets.US_ASCII));
+            byte[] pt = c.doFinal(sealed, GCM_IV_BYTES, sealed.length - GCM_IV_BYTES);
+            return new String(pt, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            // Sealed under previous secrets (race with invalidateAll) — treat as a miss.
+            cache.invalidate(key);
+            return null;
+        }
+    }
+
+    private record Secrets(SecretKey macKey, SecretKey aesKey) {
+        static Secrets generate() {
+            try {
+                byte[] mac = new byte[32];
+                new SecureRandom().nextBytes(mac);
+                KeyGenerator aes = KeyGenerator.getInstance("AES");
+                aes.init(256);
+                return new Secrets(new SecretKeySpec(mac, "HmacSHA256"), aes.generateKey());
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise token cache secrets", e);
+            }
+        }
+    }
+}
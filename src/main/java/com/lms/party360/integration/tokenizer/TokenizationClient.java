@@ -1,26 +1,30 @@
 package com.lms.party360.integration.tokenizer;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import com.lms.party360.integration.Hedger;
+import com.lms.party360.integration.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.constraints.NotNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.*;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 import com.lms.party360.exception.Problem;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 import static java.util.Map.of;
 
@@ -30,109 +34,280 @@ import static java.util.Map.of;
  * Production-grade client to HashiCorp Vault Transform/Transit for PII tokenization.
  * - Deterministic tokenization for SSN/EIN (strip noise, validate length)
  * - No raw PII ever logged; masked values in warnings
- * - Resilience via Resilience4j (timeout, retry, circuit breaker)
+ * - Resilience via Resilience4j reactive operators (timeout, retry, circuit breaker, overall budget)
+ * - Mono-returning variants for non-blocking callers; the String methods are thin blocking adapters
  * - Tenant header passthrough (optional multi-tenant routing)
+ * - Optional encrypted in-memory token cache (see TokenCache)
+ * - Concurrent identical calls coalesced onto one request (SingleFlight)
+ * - Optional tail-latency hedging of slow Vault calls (Hedger)
  *
  * Supports Vault Transform (preferred):
  *   POST /v1/transform/encode/{role}  { "transformation":"ssn", "value":"123456789" }
  *
+ * Bulk callers use tokenize*Batch, which send Vault's batch_input (one request per chunk).
+ *
  * Optionally supports Transit (format-preserving) if you set mode=TRANSIT, using:
  *   POST /v1/transit/transform  { "name":"ssn", "plaintext":"MTIzNDU2Nzg5" }
+ *
+ * mode=LOCAL tokenizes in-process with FF1/FF3-1 under Vault-wrapped data keys (see LocalFpeTokenizer).
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class TokenizationClient {
 
-    private final WebClient vaultClient;         // configured bean (see inner Config below)
+    private final WebClient vaultClient;         // "vaultWebClient" from TokenizationConfig
     private final Props props;
+    private final TokenCache tokenCache;         // no-op unless tokenization.vault.cache.enabled
+    private final VaultResilience resilience;    // timeout/CB/retry/budget for single-value calls
+    private final ObjectProvider<LocalFpeTokenizer> localFpe;   // present only in LOCAL mode
+    private final Hedger vaultHedger;            // pass-through unless tokenization.vault.hedge.enabled
+
+    /** Joins concurrent identical tokenize calls (retry storms) onto one Vault request. */
+    private final SingleFlight<FlightKey> flights;
+
+    public TokenizationClient(WebClient vaultClient, Props props, TokenCache tokenCache, VaultResilience resilience,
+                              ObjectProvider<LocalFpeTokenizer> localFpe, Hedger vaultHedger, MeterRegistry metrics) {
+        this.vaultClient = vaultClient;
+        this.props = props;
+        this.tokenCache = tokenCache;
+        this.resilience = resilience;
+        this.localFpe = localFpe;
+        this.vaultHedger = vaultHedger;
+        this.flights = new SingleFlight<>("vault.tokenize", metrics);
+    }
 
-    /** SSN → token (deterministic) */
-    @CircuitBreaker(name = "vaultTokenize")
-    @Retry(name = "vaultTokenize")
-    @TimeLimiter(name = "vaultTokenize")
+    /** SSN → token (deterministic). Blocking adapter over {@link #tokenizeSsnReactive}. */
     public String tokenizeSsn(@NotNull String ssnRaw, @NotNull String tenant) throws Throwable {
         String digits = normalizeDigits(ssnRaw, 9, "INVALID_SSN");
-        return switch (props.mode()) {
-            case TRANSFORM -> encodeTransform(props.roles().ssnRole(), props.transformations().ssn(), digits, tenant);
-            case TRANSIT    -> transformTransit(props.transformations().ssn(), digits, tenant);
-        };
+        return await(tokenize(props.roles().ssnRole(), props.transformations().ssn(), digits, tenant));
     }
 
-    /** EIN → token (deterministic) */
+    /** EIN → token (deterministic). Blocking adapter over {@link #tokenizeEinReactive}. */
     public String tokenizeEin(@NotNull String einRaw, @NotNull String tenant) throws Throwable {
         String digits = normalizeDigits(einRaw, 9, "INVALID_EIN");
-        return switch (props.mode()) {
-            case TRANSFORM -> encodeTransform(props.roles().einRole(), props.transformations().ein(), digits, tenant);
-            case TRANSIT    -> transformTransit(props.transformations().ein(), digits, tenant);
-        };
+        return await(tokenize(props.roles().einRole(), props.transformations().ein(), digits, tenant));
+    }
+
+    /** SSN → token without blocking; bounded by tokenization.vault.budget (attempts + backoff). */
+    public Mono<String> tokenizeSsnReactive(@NotNull String ssnRaw, @NotNull String tenant) {
+        return Mono.defer(() -> {
+            String digits = digitsOrNull(ssnRaw, 9);
+            if (digits == null) return Mono.error(Problem.badRequest("INVALID_SSN", "Value must contain exactly 9 digits."));
+            return tokenize(props.roles().ssnRole(), props.transformations().ssn(), digits, tenant);
+        });
+    }
+
+    /** EIN → token without blocking. */
+    public Mono<String> tokenizeEinReactive(@NotNull String einRaw, @NotNull String tenant) {
+        return Mono.defer(() -> {
+            String digits = digitsOrNull(einRaw, 9);
+            if (digits == null) return Mono.error(Problem.badRequest("INVALID_EIN", "Value must contain exactly 9 digits."));
+            return tokenize(props.roles().einRole(), props.transformations().ein(), digits, tenant);
+        });
+    }
+
+    /**
+     * SSNs → tokens in bulk; one Vault request per {@code batchSize} distinct values.
+     * The result list is index-aligned with the input and never throws for a single bad item.
+     */
+    public List<TokenResult> tokenizeSsnBatch(@NotNull List<String> ssnRaw, @NotNull String tenant) {
+        return tokenizeBatch(ssnRaw, "INVALID_SSN", props.roles().ssnRole(), props.transformations().ssn(), tenant);
+    }
+
+    /** EINs → tokens in bulk (see {@link #tokenizeSsnBatch}). */
+    public List<TokenResult> tokenizeEinBatch(@NotNull List<String> einRaw, @NotNull String tenant) {
+        return tokenizeBatch(einRaw, "INVALID_EIN", props.roles().einRole(), props.transformations().ein(), tenant);
+    }
+
+    /**
+     * Older tokens the same SSN may already be stored under: in LOCAL mode one per loaded non-active key
+     * version (tokens embed their version), otherwise none. Dedupe looks these up next to the current token,
+     * so bumping active-version does not let an existing person be created twice. In-process, no Vault call.
+     */
+    public List<String> previousSsnTokens(@NotNull String ssnRaw, @NotNull String tenant) {
+        if (props.mode() != Props.Mode.LOCAL) return List.of();
+        String digits = digitsOrNull(ssnRaw, 9);
+        return digits == null ? List.of()
+                : localFpe.getObject().previousTokens(digits, tenant, props.transformations().ssn());
+    }
+
+    /** Per-item outcome of a batch call: exactly one of {@code token} / {@code errorCode} is set. */
+    public record TokenResult(String token, String errorCode) {
+        public boolean ok() { return token != null; }
+        static TokenResult of(String token) { return new TokenResult(token, null); }
+        static TokenResult failed(String errorCode) { return new TokenResult(null, errorCode); }
     }
 
     // ---------- Core calls ----------
 
-    private String encodeTransform(String role, String transformation, String value, String tenant) throws Exception {
-        try {
-            var payload = of("transformation", transformation, "value", value);
-            var req = vaultClient.post()
-                    .uri("/v1/transform/encode/{role}", role)
-                    .header("X-Vault-Token", props.token())
-                    .headers(h -> addTenant(h, tenant))
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(BodyInserters.fromValue(payload))
-                    .retrieve()
-                    .onStatus(s -> s.value() == 400, r -> r.bodyToMono(String.class)
-                            .map(b -> Problem.upstream("VAULT_BAD_REQUEST", "Vault rejected request")))
-                    .onStatus(s -> s.is4xxClientError(), r -> r.bodyToMono(String.class)
-                            .map(b -> Problem.upstream("VAULT_4XX", "Vault auth/perm error")))
-                    .onStatus(s -> s.is5xxServerError(), r -> r.bodyToMono(String.class)
-                            .map(b -> Problem.upstream("VAULT_5XX", "Vault server error")))
-                    .bodyToMono(TransformEncodeResponse.class);
-
-            TransformEncodeResponse resp = blockWithTimeout(req, props.timeout());
-            if (resp == null || resp.data == null || !StringUtils.hasText(resp.data.encoded_value)) {
-                throw Problem.upstream("VAULT_EMPTY_RESPONSE", "Vault returned empty encoded value.");
+    /**
+     * Cache → single-flight → resilient (optionally hedged) Vault call. Deterministic tokens are stable per
+     * (tenant, transformation, digits), so a hit skips Vault entirely; joiners of a flight share its retries.
+     */
+    private Mono<String> tokenize(String role, String transformation, String digits, String tenant) {
+        return Mono.defer(() -> {
+            if (props.mode() == Props.Mode.LOCAL) {
+                return Mono.fromCallable(() -> localFpe.getObject().tokenize(digits, tenant, transformation));
+            }
+            String cached = tokenCache.get(tenant, transformation, digits);
+            if (cached != null) return Mono.just(cached);
+            String route = props.mode() == Props.Mode.TRANSIT ? "transit" : role;
+            return flights.execute(new FlightKey(route, tokenCache.keyFor(tenant, transformation, digits)),
+                            () -> resilience.decorate(vaultHedger.execute(() -> switch (props.mode()) {
+                                case TRANSFORM -> encodeTransform(role, transformation, digits, tenant);
+                                case TRANSIT    -> transformTransit(transformation, digits, tenant);
+                                case LOCAL      -> throw new IllegalStateException("LOCAL mode does not call Vault");
+                            })))
+                    .onErrorMap(e -> !(e instanceof Problem), e -> {
+                        warnMasked("Vault tokenize failed", digits, tenant, e);
+                        return e instanceof WebClientResponseException w
+                                ? Problem.upstream("VAULT_HTTP_" + w.getStatusCode().value(), "Vault request failed")
+                                : Problem.upstream("TOKENIZATION_FAILED", "Unable to tokenize value.");
+                    })
+                    .doOnNext(token -> tokenCache.put(tenant, transformation, digits, token));
+        });
+    }
+
+    private Mono<String> encodeTransform(String role, String transformation, String value, String tenant) {
+        var payload = of("transformation", transformation, "value", value);
+        return vaultClient.post()
+                .uri("/v1/transform/encode/{role}", role)
+                .headers(h -> addAuth(h, tenant))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(payload))
+                .retrieve()
+                .onStatus(s -> s.value() == 400, r -> r.bodyToMono(String.class)
+                        .map(b -> Problem.upstream("VAULT_BAD_REQUEST", "Vault rejected request")))
+                .onStatus(s -> s.is4xxClientError(), r -> r.bodyToMono(String.class)
+                        .map(b -> Problem.upstream("VAULT_4XX", "Vault auth/perm error")))
+                .onStatus(s -> s.is5xxServerError(), r -> r.bodyToMono(String.class)
+                        .map(b -> Problem.upstream("VAULT_5XX", "Vault server error")))
+                .bodyToMono(TransformEncodeResponse.class)
+                .flatMap(resp -> resp.data == null || !StringUtils.hasText(resp.data.encoded_value)
+                        ? Mono.<String>error(Problem.upstream("VAULT_EMPTY_RESPONSE", "Vault returned empty encoded value."))
+                        : Mono.just(resp.data.encoded_value))
+                .switchIfEmpty(Mono.error(() -> Problem.upstream("VAULT_EMPTY_RESPONSE", "Vault returned empty encoded value.")));
+    }
+
+    private Mono<String> transformTransit(String name, String digits, String tenant) {
+        String b64 = java.util.Base64.getEncoder().encodeToString(digits.getBytes(StandardCharsets.UTF_8));
+        var payload = of("name", name, "plaintext", b64, "tweak", "", "transformation", "FPE_AES256_GCM");
+        return vaultClient.post()
+                .uri("/v1/transit/transform")
+                .headers(h -> addAuth(h, tenant))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(payload))
+                .retrieve()
+                .onStatus(s -> s.is4xxClientError(), r -> r.bodyToMono(String.class)
+                        .map(b -> Problem.upstream("VAULT_4XX", "Vault auth/perm error")))
+                .onStatus(s -> s.is5xxServerError(), r -> r.bodyToMono(String.class)
+                        .map(b -> Problem.upstream("VAULT_5XX", "Vault server error")))
+                .bodyToMono(TransitTransformResponse.class)
+                // deterministic if configured so on Vault side
+                .flatMap(resp -> resp.data == null || !StringUtils.hasText(resp.data.ciphertext)
+                        ? Mono.<String>error(Problem.upstream("VAULT_EMPTY_RESPONSE", "Vault returned empty ciphertext."))
+                        : Mono.just(resp.data.ciphertext))
+                .switchIfEmpty(Mono.error(() -> Problem.upstream("VAULT_EMPTY_RESPONSE", "Vault returned empty ciphertext.")));
+    }
+
+    private List<TokenResult> tokenizeBatch(List<String> raws, String invalidCode,
+                                            String role, String transformation, String tenant) {
+        TokenResult[] out = new TokenResult[raws.size()];
+
+        // Validate, serve cache hits, and collapse repeated values so each distinct value is sent once.
+        Map<String, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < raws.size(); i++) {
+            String digits = digitsOrNull(raws.get(i), 9);
+            if (digits == null) {
+                out[i] = TokenResult.failed(invalidCode);
+                continue;
+            }
+            if (props.mode() == Props.Mode.LOCAL) {
+                out[i] = TokenResult.of(localFpe.getObject().tokenize(digits, tenant, transformation));
+                continue;
+            }
+            String cached = tokenCache.get(tenant, transformation, digits);
+            if (cached != null) out[i] = TokenResult.of(cached);
+            else positions.computeIfAbsent(digits, d -> new ArrayList<>(1)).add(i);
+        }
+
+        List<String> distinct = new ArrayList<>(positions.keySet());
+        int chunk = Math.max(1, props.batchSize());
+        for (int from = 0; from < distinct.size(); from += chunk) {
+            List<String> part = distinct.subList(from, Math.min(from + chunk, distinct.size()));
+            List<TokenResult> results = encodeBatch(role, transformation, part, tenant);
+            for (int k = 0; k < part.size(); k++) {
+                TokenResult r = results.get(k);
+                if (r.ok()) tokenCache.put(tenant, transformation, part.get(k), r.token());
+                for (int i : positions.get(part.get(k))) out[i] = r;
             }
-            return resp.data.encoded_value;
-        } catch (WebClientResponseException e) {
-            warnMasked("Transform encode failed", value, tenant, e);
-            throw Problem.upstream("VAULT_HTTP_" + e.getStatusCode().value(), "Vault request failed");
-        } catch (Exception e) {
-            warnMasked("Transform encode unexpected failure", value, tenant, e);
-            throw Problem.upstream("TOKENIZATION_FAILED", "Unable to tokenize value.");
         }
+        return Arrays.asList(out);
     }
 
-    private String transformTransit(String name, String digits, String tenant) throws Exception {
+    /** One Vault request for the chunk; a request-level failure fails every item in it. */
+    private List<TokenResult> encodeBatch(String role, String transformation, List<String> digits, String tenant) {
         try {
-            String b64 = java.util.Base64.getEncoder().encodeToString(digits.getBytes(StandardCharsets.UTF_8));
-            var payload = of("name", name, "plaintext", b64, "tweak", "", "transformation", "FPE_AES256_GCM");
-            var req = vaultClient.post()
-                    .uri("/v1/transit/transform")
-                    .header("X-Vault-Token", props.token())
-                    .headers(h -> addTenant(h, tenant))
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(BodyInserters.fromValue(payload))
-                    .retrieve()
-                    .onStatus(s -> s.is4xxClientError(), r -> r.bodyToMono(String.class)
-                            .map(b -> Problem.upstream("VAULT_4XX", "Vault auth/perm error")))
-                    .onStatus(s -> s.is5xxServerError(), r -> r.bodyToMono(String.class)
-                            .map(b -> Problem.upstream("VAULT_5XX", "Vault server error")))
-                    .bodyToMono(TransitTransformResponse.class);
-
-            TransitTransformResponse resp = blockWithTimeout(req, props.timeout());
-            if (resp == null || resp.data == null || !StringUtils.hasText(resp.data.ciphertext)) {
-                throw Problem.upstream("VAULT_EMPTY_RESPONSE", "Vault returned empty ciphertext.");
+            List<Map<String, String>> batchInput = new ArrayList<>(digits.size());
+            var req = switch (props.mode()) {
+                case TRANSFORM -> {
+                    for (String d : digits) batchInput.add(of("transformation", transformation, "value", d));
+                    yield batchRequest(of("batch_input", batchInput), tenant, "/v1/transform/encode/{role}", role);
+                }
+                case TRANSIT -> {
+                    for (String d : digits) {
+                        String b64 = java.util.Base64.getEncoder().encodeToString(d.getBytes(StandardCharsets.UTF_8));
+                        batchInput.add(of("plaintext", b64, "tweak", ""));
+                    }
+                    yield batchRequest(of("name", transformation, "transformation", "FPE_AES256_GCM",
+                            "batch_input", batchInput), tenant, "/v1/transit/transform");
+                }
+                case LOCAL -> throw new IllegalStateException("LOCAL mode does not call Vault");
+            };
+
+            BatchResponse resp = blockWithTimeout(req, batchTimeout(digits.size()));
+            if (resp == null || resp.data == null || resp.data.batch_results == null
+                    || resp.data.batch_results.size() != digits.size()) {
+                log.warn("Vault batch response missing or misaligned (items={} tenant={})", digits.size(), tenant);
+                return failAll(digits.size(), "VAULT_BATCH_MISMATCH");
+            }
+            List<TokenResult> out = new ArrayList<>(digits.size());
+            for (BatchResponse.Item item : resp.data.batch_results) {
+                String token = props.mode() == Props.Mode.TRANSFORM ? item.encoded_value : item.ciphertext;
+                out.add(StringUtils.hasText(token) ? TokenResult.of(token)
+                        : TokenResult.failed(StringUtils.hasText(item.error) ? "VAULT_ITEM_ERROR" : "VAULT_EMPTY_RESPONSE"));
             }
-            return resp.data.ciphertext; // deterministic if configured so on Vault side
+            return out;
         } catch (WebClientResponseException e) {
-            warnMasked("Transit transform failed", digits, tenant, e);
-            throw Problem.upstream("VAULT_HTTP_" + e.getStatusCode().value(), "Vault request failed");
+            log.warn("Vault batch encode failed (items={} tenant={} status={})",
+                    digits.size(), tenant, e.getStatusCode().value());
+            return failAll(digits.size(), "VAULT_HTTP_" + e.getStatusCode().value());
         } catch (Exception e) {
-            warnMasked("Transit transform unexpected failure", digits, tenant, e);
-            throw Problem.upstream("TOKENIZATION_FAILED", "Unable to tokenize value.");
+            log.warn("Vault batch encode unexpected failure (items={} tenant={})", digits.size(), tenant, e);
+            return failAll(digits.size(), "TOKENIZATION_FAILED");
         }
     }
 
+    private Mono<BatchResponse> batchRequest(Map<String, ?> payload, String tenant, String uri, Object... uriVars) {
+        return vaultClient.post()
+                .uri(uri, uriVars)
+                .headers(h -> addAuth(h, tenant))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(payload))
+                .retrieve()
+                .bodyToMono(BatchResponse.class);
+    }
+
+    /** Vault encodes batch items sequentially, so allow the single-call timeout to grow with the chunk. */
+    private Duration batchTimeout(int items) {
+        Duration base = props.timeout() == null ? Duration.ofSeconds(2) : props.timeout();
+        return base.plusMillis(items * 2L);
+    }
+
+    private static List<TokenResult> failAll(int n, String code) {
+        return new ArrayList<>(Collections.nCopies(n, TokenResult.failed(code)));
+    }
+
     // ---------- Helpers ----------
 
     private static String normalizeDigits(String raw, int expectedLen, String code) throws Throwable {
@@ -144,6 +319,18 @@ public class TokenizationClient {
         return d;
     }
 
+    private static String digitsOrNull(String raw, int expectedLen) {
+        if (raw == null) return null;
+        String d = raw.replaceAll("[^0-9]", "");
+        return d.length() == expectedLen ? d : null;
+    }
+
+    /** Static token if configured; in AGENT_TOKEN_FILE mode VaultTokenFileFilter sets it per request. */
+    private void addAuth(HttpHeaders h, String tenant) {
+        if (StringUtils.hasText(props.token())) h.set("X-Vault-Token", props.token());
+        addTenant(h, tenant);
+    }
+
     private static void addTenant(HttpHeaders h, String tenant) {
         if (StringUtils.hasText(tenant)) {
             // Optional: use a Vault policy/namespace header; adjust to your setup.
@@ -152,17 +339,29 @@ public class TokenizationClient {
         }
     }
 
-    private static void warnMasked(String msg, String digits, String tenant, Exception e) {
+    private static void warnMasked(String msg, String digits, String tenant, Throwable e) {
         String masked = (digits == null || digits.length() < 4)
                 ? "****"
                 : "*****" + digits.substring(digits.length() - 4);
         log.warn("{} (masked={} tenant={})", msg, masked, tenant, e);
     }
 
+    /** The reactive chain already carries the budget; block() here only parks the caller (no extra timeout). */
+    private static <T> T await(Mono<T> mono) throws Throwable {
+        try {
+            return mono.block();
+        } catch (RuntimeException e) {
+            throw Exceptions.unwrap(e);
+        }
+    }
+
     private static <T> T blockWithTimeout(Mono<T> mono, Duration timeout) {
         return mono.block(timeout == null ? Duration.ofSeconds(2) : timeout);
     }
 
+    /** Route + TokenCache HMAC key (tenant, transformation, MAC of the digits): plaintext is never a map key. */
+    private record FlightKey(String route, TokenCache.Key value) {}
+
     // ---------- DTOs (Vault responses) ----------
 
     private record TransformEncodeResponse(Data data, Map<String, Object> warnings) {
@@ -173,12 +372,18 @@ public class TokenizationClient {
         private record Data(String ciphertext) {}
     }
 
-    // ---------- Properties & WebClient config ----------
+    /** Shared by Transform (encoded_value) and Transit (ciphertext) batch responses. */
+    private record BatchResponse(Data data) {
+        private record Data(List<Item> batch_results) {}
+        private record Item(String encoded_value, String ciphertext, String error) {}
+    }
+
+    // ---------- Properties ----------
 
     @Component
     @ConfigurationProperties(prefix = "tokenization.vault")
     public static class Props {
-        public enum Mode { TRANSFORM, TRANSIT }
+        public enum Mode { TRANSFORM, TRANSIT, LOCAL }
 
         private String url = "http://vault:8200";
         private String token; // use Vault Agent/JWT auth in prod; token here for simplicity
@@ -186,6 +391,8 @@ public class TokenizationClient {
         private Roles roles = new Roles();
         private Transformations transformations = new Transformations();
         private Duration timeout = Duration.ofSeconds(2);
+        private int batchSize = 250;
+        private Duration budget = Duration.ofSeconds(5);
 
         public String url() { return url; }
         public String token() { return token; }
@@ -193,6 +400,8 @@ public class TokenizationClient {
         public Roles roles() { return roles; }
         public Transformations transformations() { return transformations; }
         public Duration timeout() { return timeout; }
+        public int batchSize() { return batchSize; }
+        public Duration budget() { return budget; }
 
         public void setUrl(String url) { this.url = url; }
         public void setToken(String token) { this.token = token; }
@@ -200,6 +409,8 @@ public class TokenizationClient {
         public void setRoles(Roles roles) { this.roles = roles; }
         public void setTransformations(Transformations t) { this.transformations = t; }
         public void setTimeout(Duration timeout) { this.timeout = timeout; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        public void setBudget(Duration budget) { this.budget = budget; }
 
         public static class Roles {
             private String ssnRole = "party-ssn-role";
@@ -218,33 +429,5 @@ public class TokenizationClient {
             public void setEin(String v) { this.ein = v; }
         }
     }
-
-    /** WebClient bean factory (can also be centralized in a @Configuration). */
-    @org.springframework.context.annotation.Bean("vaultWebClient")
-    public WebClient vaultWebClient(Props props) {
-        Objects.requireNonNull(props.token(), "Vault token must be configured (or wire Vault Agent auth)");
-        return WebClient.builder()
-                .baseUrl(props.url())
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .clientConnector(new ReactorClientHttpConnector(httpClientWithTimeout(props.timeout())))
-                .filter(loggingFilter()) // redacts bodies automatically
-                .build();
-    }
-
-    private static reactor.netty.http.client.HttpClient httpClientWithTimeout(Duration timeout) {
-        var t = timeout == null ? Duration.ofSeconds(2) : timeout;
-        return reactor.netty.http.client.HttpClient.create()
-                .responseTimeout(t)
-                .compress(true);
-    }
-
-    /** Minimal redacting filter (no request body logged). */
-    private static ExchangeFilterFunction loggingFilter() {
-        return ExchangeFilterFunction.ofRequestProcessor(req -> {
-            // Log only method + URI; never log headers with tokens nor body (PII)
-            log.debug("Vault request: {} {}", req.method(), req.url());
-            return Mono.just(req);
-        });
-    }
 }
 
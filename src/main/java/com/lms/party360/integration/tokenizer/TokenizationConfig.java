@@ -1,27 +1,44 @@
 package com.lms.party360.integration.tokenizer;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import com.lms.party360.integration.Hedger;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.transport.ProxyProvider;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -34,23 +51,51 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
  * Wires a hardened WebClient for Vault and exports a TokenizationClient bean.
  * - Strongly-typed properties with validation
  * - Connection/read timeouts & small buffer sizes
+ * - Single tuned connection pool (bounded pending-acquire, idle/lifetime eviction, optional HTTP/2) with metrics
  * - No PII logging (request/response redaction)
  * - Optional proxy + namespace support
  * - Conditional beans to avoid double-registration
+ * - Optional tenant-scoped token cache (tokenization.vault.cache.*)
+ * - LOCAL mode: in-process FF1/FF3-1 with Vault-wrapped data keys (tokenization.vault.local.*)
+ * - Optional hedged requests with a traffic budget (tokenization.vault.hedge.*)
  */
 @Configuration
 @EnableConfigurationProperties(TokenizationConfig.TokenizationProps.class)
 @Slf4j
 public class TokenizationConfig {
 
+    /**
+     * Dedicated pool for Vault: bounded connections and pending-acquire queue (fail fast instead of queueing
+     * unboundedly), idle/lifetime eviction so stale connections behind load balancers are recycled.
+     * With metrics enabled, Reactor Netty publishes reactor.netty.connection.provider.* gauges
+     * (active/idle/pending connections, pending-acquire time) to the global Micrometer registry.
+     */
+    @Bean(name = "vaultConnectionProvider", destroyMethod = "dispose")
+    @ConditionalOnMissingBean(name = "vaultConnectionProvider")
+    public ConnectionProvider vaultConnectionProvider(TokenizationProps props) {
+        TokenizationProps.Pool pool = props.getPool();
+        return ConnectionProvider.builder("vault")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInterval())
+                .metrics(pool.isMetrics())
+                .build();
+    }
+
     @Bean(name = "vaultWebClient")
     @ConditionalOnMissingBean(name = "vaultWebClient")
-    public WebClient vaultWebClient(TokenizationProps props) {
+    public WebClient vaultWebClient(TokenizationProps props,
+                                    @Qualifier("vaultConnectionProvider") ConnectionProvider connectionProvider,
+                                    ObjectProvider<VaultTokenFileFilter> tokenFileFilter) {
         validateProps(props);
 
         // Hardened Reactor Netty client
         HttpClient http =
-                HttpClient.create()
+                HttpClient.create(connectionProvider)
+                        .protocol(protocols(props.getPool().getHttp2()))
                         .compress(true)
                         .responseTimeout(props.getTimeout())
                         .followRedirect(true)
@@ -58,6 +103,11 @@ public class TokenizationConfig {
                         .resolver(spec -> spec.queryTimeout(Duration.of(2000, ChronoUnit.MILLIS)))
                         .option(io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) props.getConnectTimeout().toMillis());
 
+        // Request metrics (reactor.netty.http.client.*); URIs collapsed to templates to bound tag cardinality
+        if (props.getPool().isMetrics()) {
+            http = http.metrics(true, TokenizationConfig::uriTemplate);
+        }
+
         // Optional HTTP proxy (corp env)
         if (props.getProxy() != null && props.getProxy().isEnabled()) {
             http = http.proxy(p -> p
@@ -80,6 +130,9 @@ public class TokenizationConfig {
                 .filter(redactingRequestFilter())
                 .filter(redactingResponseFilter());
 
+        // Agent token file: resolved per request from a watched, memoized value (survives rotation).
+        tokenFileFilter.ifAvailable(b::filter);
+
         // Namespace header (if you use Vault namespaces per tenant or BU)
         Optional.ofNullable(props.getNamespaceHeader()).filter(h -> !h.isBlank())
                 .ifPresent(h -> b.defaultHeader(h, props.getNamespaceValue()));
@@ -94,12 +147,99 @@ public class TokenizationConfig {
         return b.build();
     }
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "tokenization.vault.auth", name = "mode", havingValue = "AGENT_TOKEN_FILE")
+    public VaultTokenFileFilter vaultTokenFileFilter(TokenizationProps props) throws IOException {
+        VaultTokenFileFilter f = new VaultTokenFileFilter(Path.of(props.getAuth().getTokenFile()));
+        if (!f.hasToken()) log.warn("Vault token file {} not readable yet; requests will fail until it appears",
+                props.getAuth().getTokenFile());
+        return f;
+    }
+
     @Bean
     @ConditionalOnMissingBean(TokenizationClient.class)
-    public TokenizationClient tokenizationClient(WebClient vaultWebClient, TokenizationProps props) {
-        // This aligns with TokenizationClient’s constructor that expects WebClient + Props.
-        // If your TokenizationClient already uses @Component, this bean won't be created.
-        return new TokenizationClient(vaultWebClient, props.asVaultProps());
+    public TokenizationClient tokenizationClient(WebClient vaultWebClient, TokenizationProps props,
+                                                 TokenCache tokenCache, VaultResilience vaultResilience,
+                                                 ObjectProvider<LocalFpeTokenizer> localFpe,
+                                                 @Qualifier("vaultHedger") Hedger vaultHedger,
+                                                 ObjectProvider<MeterRegistry> metrics) {
+        // This aligns with TokenizationClient’s constructor (WebClient + Props + TokenCache + VaultResilience
+        // + LOCAL engine + Hedger + MeterRegistry). If your TokenizationClient already uses @Component, this bean won't be created.
+        return new TokenizationClient(vaultWebClient, props.asVaultProps(), tokenCache, vaultResilience,
+                localFpe, vaultHedger, metrics.getIfAvailable());
+    }
+
+    @Bean(name = "vaultHedger")
+    @ConditionalOnMissingBean(name = "vaultHedger")
+    public Hedger vaultHedger(TokenizationProps props, ObjectProvider<MeterRegistry> metrics) {
+        TokenizationProps.Hedge h = props.getHedge();
+        if (!h.isEnabled()) return Hedger.disabled();
+        log.info("Vault hedging enabled p{} delay=[{}, {}] budget={}%",
+                h.getPercentile() * 100, h.getMinDelay(), h.getMaxDelay(), h.getBudgetPercent());
+        return new Hedger("vault", true, h.getPercentile(), h.getMinDelay(), h.getMaxDelay(),
+                h.getBudgetPercent() / 100.0, h.getMinSamples(), metrics.getIfAvailable());
+    }
+
+    /** LOCAL mode: unwrap the FPE data keys through Vault once, then tokenize in-process. */
+    @Bean
+    @ConditionalOnProperty(prefix = "tokenization.vault", name = "mode", havingValue = "LOCAL")
+    public LocalFpeTokenizer localFpeTokenizer(TokenizationProps props,
+                                               @Qualifier("vaultWebClient") WebClient vaultWebClient) {
+        TokenizationProps.Local local = props.getLocal();
+        Map<Integer, byte[]> keys = LocalFpeTokenizer.unwrapDataKeys(
+                vaultWebClient, local.getKekName(), local.getWrappedKeys(), props.getTimeout());
+        try {
+            log.info("Local FPE tokenization algorithm={} keyVersions={} active={}",
+                    local.getAlgorithm(), keys.keySet(), local.getActiveVersion());
+            return new LocalFpeTokenizer(local.getAlgorithm(), keys, local.getActiveVersion());
+        } finally {
+            keys.values().forEach(k -> Arrays.fill(k, (byte) 0));   // ciphers hold their own copies
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(VaultResilience.class)
+    public VaultResilience vaultResilience(TokenizationProps props,
+                                           ObjectProvider<CircuitBreakerRegistry> circuitBreakers,
+                                           ObjectProvider<RetryRegistry> retries) {
+        return new VaultResilience(
+                circuitBreakers.getIfAvailable(CircuitBreakerRegistry::ofDefaults),
+                retries.getIfAvailable(RetryRegistry::ofDefaults),
+                props.getTimeout(), props.getBudget());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(TokenCache.class)
+    public TokenCache tokenCache(TokenizationProps props, ObjectProvider<MeterRegistry> metrics) {
+        TokenizationProps.Cache c = props.getCache();
+        if (!c.isEnabled()) return TokenCache.disabled();
+        log.info("Tokenization cache enabled maxEntries={} ttl={}", c.getMaxEntries(), c.getTtl());
+        return new TokenCache(true, c.getMaxEntries(), c.getTtl(), metrics.getIfAvailable());
+    }
+
+    /** Publishes TokenCache.KeysRotated when a configured Vault key's latest_version changes. */
+    @Bean
+    @ConditionalOnProperty(prefix = "tokenization.vault.cache", name = "enabled", havingValue = "true")
+    public VaultKeyRotationWatcher vaultKeyRotationWatcher(TokenizationProps props,
+                                                           @Qualifier("vaultWebClient") WebClient vaultWebClient,
+                                                           ApplicationEventPublisher events) {
+        TokenizationProps.Cache c = props.getCache();
+        return new VaultKeyRotationWatcher(c.getRotationKeys(),
+                VaultKeyRotationWatcher.vault(vaultWebClient, props.getTimeout()), events, c.getRotationPoll());
+    }
+
+    private static HttpProtocol[] protocols(TokenizationProps.Pool.Http2 http2) {
+        return switch (http2) {
+            case OFF -> new HttpProtocol[] { HttpProtocol.HTTP11 };
+            case H2  -> new HttpProtocol[] { HttpProtocol.H2, HttpProtocol.HTTP11 };   // ALPN over TLS
+            case H2C -> new HttpProtocol[] { HttpProtocol.H2C, HttpProtocol.HTTP11 };  // cleartext upgrade
+        };
+    }
+
+    private static String uriTemplate(String uri) {
+        int q = uri.indexOf('?');
+        String path = q < 0 ? uri : uri.substring(0, q);
+        return path.startsWith("/v1/transform/encode/") ? "/v1/transform/encode/{role}" : path;
     }
 
     // ---------- Filters (safe logging) ----------
@@ -152,10 +292,18 @@ public class TokenizationConfig {
         @Valid @NotNull
         private Transformations transformations = new Transformations();
 
-        /** Request timeout (read). */
+        /** Request timeout (read); also the per-attempt TimeLimiter for single-value calls. */
         @NotNull
         private Duration timeout = Duration.ofSeconds(2);
 
+        /** Max values per Vault batch_input request (tokenize*Batch). */
+        @Min(1)
+        private int batchSize = 250;
+
+        /** Overall deadline for one tokenize call including retries and backoff. */
+        @NotNull
+        private Duration budget = Duration.ofSeconds(5);
+
         /** Connect timeout. */
         @NotNull
         private Duration connectTimeout = Duration.ofSeconds(2);
@@ -172,11 +320,27 @@ public class TokenizationConfig {
         @Valid
         private Proxy proxy;
 
+        /** In-process FPE settings (mode=LOCAL). */
+        @Valid @NotNull
+        private Local local = new Local();
+
+        /** Hedged requests against slow Vault nodes (off by default). */
+        @Valid @NotNull
+        private Hedge hedge = new Hedge();
+
+        /** Connection pool / protocol for the Vault WebClient. */
+        @Valid @NotNull
+        private Pool pool = new Pool();
+
         /** Authentication mode (STATIC_TOKEN is simplest; prefer Vault Agent for prod). */
         @Valid @NotNull
         private Auth auth = new Auth();
 
-        public enum Mode { TRANSFORM, TRANSIT }
+        /** Optional in-memory cache of deterministic tokens (off by default). */
+        @Valid @NotNull
+        private Cache cache = new Cache();
+
+        public enum Mode { TRANSFORM, TRANSIT, LOCAL }
 
         @Getter @Setter
         public static class Roles {
@@ -198,6 +362,46 @@ public class TokenizationConfig {
             @Min(1) private int port = 8080;
         }
 
+        @Getter @Setter
+        public static class Local {
+            @NotNull private LocalFpeTokenizer.Algorithm algorithm = LocalFpeTokenizer.Algorithm.FF1;
+            /** Transit key that wraps the data keys. */
+            @NotBlank private String kekName = "party-fpe-kek";
+            /** Version used for new tokens; must be present in wrappedKeys. */
+            @Min(1) private int activeVersion = 1;
+            /** version → Transit ciphertext of a 256-bit data key (POST /v1/transit/datakey/wrapped/{kek}). */
+            @NotNull private Map<Integer, String> wrappedKeys = new HashMap<>();
+        }
+
+        @Getter @Setter
+        public static class Hedge {
+            private boolean enabled = false;
+            /** Hedge once the primary is slower than this rolling quantile. */
+            @DecimalMin("0.5") @DecimalMax("0.999") private double percentile = 0.95;
+            @NotNull private Duration minDelay = Duration.ofMillis(5);
+            @NotNull private Duration maxDelay = Duration.ofMillis(500);
+            /** Hedges as a share of calls, in percent. */
+            @DecimalMin("0") @DecimalMax("50") private double budgetPercent = 5;
+            /** Samples required in the 1-minute window before hedging starts. */
+            @Min(1) private long minSamples = 200;
+        }
+
+        @Getter @Setter
+        public static class Pool {
+            public enum Http2 { OFF, H2, H2C }
+
+            @Min(1) private int maxConnections = 50;
+            /** Callers queued for a connection beyond this fail immediately (-1 = unbounded). */
+            @Min(-1) private int pendingAcquireMaxCount = 500;
+            @NotNull private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+            @NotNull private Duration maxIdleTime = Duration.ofSeconds(30);
+            @NotNull private Duration maxLifeTime = Duration.ofMinutes(5);
+            @NotNull private Duration evictInterval = Duration.ofSeconds(30);
+            /** H2 = TLS + ALPN, H2C = cleartext; both fall back to HTTP/1.1. */
+            @NotNull private Http2 http2 = Http2.OFF;
+            private boolean metrics = true;
+        }
+
         @Getter @Setter
         public static class Auth {
             public enum Mode { STATIC_TOKEN, AGENT_TOKEN_FILE }
@@ -208,12 +412,28 @@ public class TokenizationConfig {
 
             /**
              * Used when mode=AGENT_TOKEN_FILE (e.g., Vault Agent writes token to /vault/token).
-             * If set, prefer mounting file as read-only; the WebClient here reads token once at startup.
-             * For live rotation, inject a filter that resolves token on each request instead.
+             * If set, prefer mounting file as read-only; VaultTokenFileFilter watches it and swaps the
+             * token on rotation without restarting or rebuilding the WebClient.
              */
             private String tokenFile = "/vault/token";
         }
 
+        @Getter @Setter
+        public static class Cache {
+            private boolean enabled = false;
+            /** Upper bound on cached tokens (all tenants). */
+            @Min(1) private long maxEntries = 100_000;
+            /** Staleness bound for keys not listed in rotationKeys; keep below the Vault key rotation period. */
+            @NotNull private Duration ttl = Duration.ofHours(1);
+            /**
+             * transformation → Vault key metadata path with data.latest_version (e.g. ssn →
+             * /v1/transit/keys/party-ssn). A version change invalidates that transformation's cached tokens.
+             */
+            @NotNull private Map<String, String> rotationKeys = new HashMap<>();
+            /** How often rotationKeys are polled (0 = TTL-only invalidation). */
+            @NotNull private Duration rotationPoll = Duration.ofMinutes(1);
+        }
+
         // Adapter so the existing TokenizationClient can reuse these props directly.
         public TokenizationClient.Props asVaultProps() {
             TokenizationClient.Props p = new TokenizationClient.Props();
@@ -221,6 +441,7 @@ public class TokenizationConfig {
             p.setMode(switch (this.mode) {
                 case TRANSFORM -> TokenizationClient.Props.Mode.TRANSFORM;
                 case TRANSIT   -> TokenizationClient.Props.Mode.TRANSIT;
+                case LOCAL     -> TokenizationClient.Props.Mode.LOCAL;
             });
             TokenizationClient.Props.Roles r = new TokenizationClient.Props.Roles();
             r.setSsnRole(this.roles.getSsnRole());
@@ -233,27 +454,18 @@ public class TokenizationConfig {
             p.setTransformations(t);
 
             p.setTimeout(this.timeout);
-
-            // Resolve token based on auth mode.
-            String tokenValue = switch (this.auth.getMode()) {
-                case STATIC_TOKEN -> this.auth.getToken();
-                case AGENT_TOKEN_FILE -> safeReadFile(this.auth.getTokenFile());
-            };
-            p.setToken(Objects.requireNonNull(tokenValue, """
-                Vault token not resolved. Configure either:
-                - tokenization.vault.auth.mode=STATIC_TOKEN and tokenization.vault.auth.token
-                - or tokenization.vault.auth.mode=AGENT_TOKEN_FILE and tokenization.vault.auth.token-file
-                """));
-            return p;
-        }
-
-        private static String safeReadFile(String path) {
-            try {
-                return java.nio.file.Files.readString(java.nio.file.Path.of(path)).trim();
-            } catch (Exception e) {
-                log.error("Failed to read Vault token file at {}", path, e);
-                return null;
+            p.setBatchSize(this.batchSize);
+            p.setBudget(this.budget);
+
+            // STATIC_TOKEN: fixed header. AGENT_TOKEN_FILE: resolved per request by VaultTokenFileFilter.
+            if (this.auth.getMode() == Auth.Mode.STATIC_TOKEN) {
+                p.setToken(Objects.requireNonNull(this.auth.getToken(), """
+                    Vault token not resolved. Configure either:
+                    - tokenization.vault.auth.mode=STATIC_TOKEN and tokenization.vault.auth.token
+                    - or tokenization.vault.auth.mode=AGENT_TOKEN_FILE and tokenization.vault.auth.token-file
+                    """));
             }
+            return p;
         }
     }
 }
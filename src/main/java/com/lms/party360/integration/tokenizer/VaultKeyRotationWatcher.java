@@ -0,0 +1,115 @@
+package com.lms.party360.integration.tokenizer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VaultKeyRotationWatcher
+ *
+ * Turns Vault key rotations into {@link TokenCache.KeysRotated} events (tokenization.vault.cache.rotation-*).
+ * - Polls each configured key's metadata for {@code data.latest_version}
+ *   (GET /v1/transit/keys/{name}, /v1/transform/tokenization/keys/{name}, ...)
+ * - The first successful poll records a baseline; a later change publishes KeysRotated(transformation), so
+ *   cached tokens for that transformation are dropped within one poll interval instead of at TTL
+ * - A failed poll keeps the last known version and retries next interval
+ */
+@Slf4j
+public class VaultKeyRotationWatcher implements SmartLifecycle {
+
+    /** Reads a key's latest version from its metadata path; null when the response carries none. */
+    @FunctionalInterface
+    public interface KeyVersions {
+        Long latest(String path) throws Exception;
+    }
+
+    private final Map<String, String> keyPaths;
+    private final KeyVersions versions;
+    private final ApplicationEventPublisher events;
+    private final Duration interval;
+    private final Map<String, Long> known = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * @param keyPaths transformation (as passed to TokenCache) → Vault key metadata path
+     */
+    public VaultKeyRotationWatcher(Map<String, String> keyPaths, KeyVersions versions,
+                                   ApplicationEventPublisher events, Duration interval) {
+        this.keyPaths = Map.copyOf(keyPaths);
+        this.versions = Objects.requireNonNull(versions);
+        this.events = Objects.requireNonNull(events);
+        this.interval = interval;
+    }
+
+    /** Key versions via the Vault WebClient (called from the watcher thread, never an event loop). */
+    public static KeyVersions vault(WebClient vault, Duration timeout) {
+        return path -> {
+            JsonNode body = vault.get().uri(path).retrieve().bodyToMono(JsonNode.class).block(timeout);
+            JsonNode v = body == null ? null : body.path("data").path("latest_version");
+            return v != null && v.isIntegralNumber() ? v.asLong() : null;
+        };
+    }
+
+    void poll() {
+        keyPaths.forEach((transformation, path) -> {
+            Long latest;
+            try {
+                latest = versions.latest(path);
+            } catch (Exception e) {
+                log.warn("Vault key version poll failed transformation={} path={}; retrying in {}",
+                        transformation, path, interval, e);
+                return;
+            }
+            if (latest == null) {
+                log.warn("Vault key metadata at {} has no latest_version", path);
+                return;
+            }
+            Long prev = known.put(transformation, latest);
+            if (prev != null && !prev.equals(latest)) {
+                log.info("Vault key rotated transformation={} version {} -> {}", transformation, prev, latest);
+                events.publishEvent(new TokenCache.KeysRotated(transformation));
+            }
+        });
+    }
+
+    // -------------------- Lifecycle --------------------
+
+    @Override
+    public void start() {
+        if (keyPaths.isEmpty() || interval.isZero() || interval.isNegative()) {
+            log.info("No Vault key rotation polling configured; token cache entries expire by TTL only");
+            return;
+        }
+        ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vault-key-rotation");
+            t.setDaemon(true);
+            return t;
+        });
+        s.scheduleWithFixedDelay(this::poll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        this.scheduler = s;
+        log.info("Polling Vault key versions every {} for {}", interval, keyPaths.keySet());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService s = scheduler;
+        scheduler = null;
+        if (s != null) s.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.lms.party360.integration.tokenizer;
+
+import com.lms.party360.exception.Problem;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * VaultResilience
+ *
+ * Reactive Resilience4j pipeline for Vault calls (replaces the annotation-driven setup, which assumed
+ * future/reactive return types and never applied its TimeLimiter to the blocking methods).
+ *
+ * Order, inside out: per-attempt TimeLimiter (tokenization.vault.timeout) → CircuitBreaker → Retry →
+ * overall budget (tokenization.vault.budget). The budget bounds attempts + backoff together, so a caller
+ * never waits longer than it, however the retry instance is configured. CircuitBreaker/Retry come from the
+ * registries, so {@code resilience4j.*.instances.vaultTokenize} in configuration still applies, except that
+ * only transient failures (timeouts, I/O, 5xx) are retried and recorded: a Vault 4xx is the caller's problem,
+ * retrying it cannot help, and counting it would let one bad request open the breaker for everyone.
+ */
+public final class VaultResilience {
+
+    public static final String INSTANCE = "vaultTokenize";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+    private final TimeLimiter timeLimiter;
+    private final Duration budget;
+
+    public VaultResilience(CircuitBreakerRegistry circuitBreakers, RetryRegistry retries,
+                           Duration attemptTimeout, Duration budget) {
+        CircuitBreaker configuredBreaker = circuitBreakers.circuitBreaker(INSTANCE);
+        this.circuitBreaker = CircuitBreaker.of(INSTANCE, CircuitBreakerConfig
+                .from(configuredBreaker.getCircuitBreakerConfig())
+                .recordException(VaultResilience::isTransient)
+                .build());
+        circuitBreakers.replace(INSTANCE, circuitBreaker);
+        Retry configuredRetry = retries.retry(INSTANCE);
+        this.retry = Retry.of(INSTANCE, RetryConfig.from(configuredRetry.getRetryConfig())
+                .retryOnException(VaultResilience::isTransient)
+                .build());
+        retries.replace(INSTANCE, retry);
+        this.timeLimiter = TimeLimiter.of(INSTANCE, TimeLimiterConfig.custom()
+                .timeoutDuration(attemptTimeout)
+                .cancelRunningFuture(true)
+                .build());
+        this.budget = budget;
+    }
+
+    public static VaultResilience defaults(Duration attemptTimeout, Duration budget) {
+        return new VaultResilience(CircuitBreakerRegistry.ofDefaults(), RetryRegistry.ofDefaults(), attemptTimeout, budget);
+    }
+
+    /** Timeouts, connection/I-O errors and Vault 5xx; everything else (4xx, empty responses) is final. */
+    static boolean isTransient(Throwable t) {
+        if (t instanceof TimeoutException || t instanceof IOException || t instanceof WebClientRequestException) {
+            return true;
+        }
+        if (t instanceof WebClientResponseException w) return w.getStatusCode().is5xxServerError();
+        if (t instanceof Problem p) return "VAULT_5XX".equals(p.code());
+        return false;
+    }
+
+    public <T> Mono<T> decorate(Mono<T> call) {
+        return call
+                .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .timeout(budget, Mono.error(() -> new TimeoutException("Vault budget " + budget + " exhausted")));
+    }
+
+    public Duration budget() {
+        return budget;
+    }
+}
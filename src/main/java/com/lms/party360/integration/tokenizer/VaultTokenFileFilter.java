@@ -0,0 +1,120 @@
+package com.lms.party360.integration.tokenizer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * VaultTokenFileFilter
+ *
+ * Sets X-Vault-Token from the Vault Agent sink file on every request, so token rotation needs no restart
+ * and no WebClient rebuild.
+ * - The token is memoized in an AtomicReference; the request path never touches the file system
+ * - A WatchService on the parent directory re-reads the file on create/modify (Agent renames into place,
+ *   and Kubernetes secret mounts swap a ..data symlink, so directory-level events are the reliable signal)
+ * - A 403 from Vault schedules one re-read on boundedElastic as a safety net for missed events (the request
+ *   is not retried); concurrent 403s coalesce into a single read, and the event loop never blocks on it
+ * - Blank or unreadable files keep the previous token
+ */
+@Slf4j
+public class VaultTokenFileFilter implements ExchangeFilterFunction, AutoCloseable {
+
+    static final String HEADER = "X-Vault-Token";
+
+    private final Path tokenFile;
+    private final AtomicReference<String> token = new AtomicReference<>();
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+    private final WatchService watcher;
+    private final Thread watchThread;
+
+    public VaultTokenFileFilter(Path tokenFile) throws IOException {
+        this.tokenFile = tokenFile.toAbsolutePath();
+        reload();
+        this.watcher = tokenFile.getFileSystem().newWatchService();
+        this.tokenFile.getParent().register(watcher,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.watchThread = Thread.ofPlatform().daemon().name("vault-token-watch").start(this::watchLoop);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String current = token.get();
+        ClientRequest req = current == null ? request
+                : ClientRequest.from(request).headers(h -> h.set(HEADER, current)).build();
+        return next.exchange(req).doOnNext(resp -> {
+            if (resp.statusCode().value() == 403) scheduleReload();
+        });
+    }
+
+    /** Off the event loop; at most one pending re-read however many requests were rejected. */
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) return;
+        Schedulers.boundedElastic().schedule(() -> {
+            reloadScheduled.set(false);
+            reload();
+        });
+    }
+
+    /** Re-reads the sink file and swaps the memoized token if it changed. */
+    public void reload() {
+        try {
+            String next = Files.readString(tokenFile).trim();
+            if (next.isEmpty()) {
+                log.warn("Vault token file {} is empty; keeping previous token", tokenFile);
+                return;
+            }
+            String prev = token.getAndSet(next);
+            if (!next.equals(prev)) log.info("Vault token loaded from {}", tokenFile);
+        } catch (IOException e) {
+            log.warn("Cannot read Vault token file {}; keeping previous token", tokenFile, e);
+        }
+    }
+
+    public boolean hasToken() {
+        return token.get() != null;
+    }
+
+    private void watchLoop() {
+        Path name = tokenFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean relevant = false;
+                for (WatchEvent<?> ev : key.pollEvents()) {
+                    // OVERFLOW carries no context; symlink swaps (..data) change the file without naming it.
+                    relevant |= ev.kind() == StandardWatchEventKinds.OVERFLOW
+                            || name.equals(ev.context())
+                            || String.valueOf(ev.context()).startsWith("..");
+                }
+                if (relevant) reload();
+                if (!key.reset()) {
+                    log.error("Vault token directory {} is no longer watchable", tokenFile.getParent());
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchThread.interrupt();
+        watcher.close();
+    }
+}
@@ -0,0 +1,152 @@
+package com.lms.party360.integration.tokenizer.fpe;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+
+/**
+ * FF1 (NIST SP 800-38G, section 5.1) with AES-128/192/256.
+ *
+ * Ten Feistel rounds; the round function is a CBC-MAC over P || Q, expanded with extra AES blocks
+ * when more than 16 bytes of output are needed. Tweaks may be any length.
+ */
+public final class FF1 implements FpeCipher {
+
+    private static final int ROUNDS = 10;
+
+    private final SecretKeySpec key;
+    private final int radix;
+    private final int minLen;
+
+    public FF1(byte[] key, int radix) {
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException("FF1 key must be 128, 192 or 256 bits");
+        }
+        if (radix < 2 || radix > Character.MAX_RADIX) throw new IllegalArgumentException("radix must be 2..36");
+        this.key = new SecretKeySpec(key.clone(), "AES");
+        this.radix = radix;
+        // radix^minLen >= 1,000,000
+        int m = 1;
+        while (BigInteger.valueOf(radix).pow(m).compareTo(BigInteger.valueOf(1_000_000)) < 0) m++;
+        this.minLen = Math.max(2, m);
+    }
+
+    @Override
+    public int radix() {
+        return radix;
+    }
+
+    @Override
+    public String encrypt(String x, byte[] tweak) {
+        return cipher(x, tweak, true);
+    }
+
+    @Override
+    public String decrypt(String x, byte[] tweak) {
+        return cipher(x, tweak, false);
+    }
+
+    private String cipher(String x, byte[] tweak, boolean encrypt) {
+        int n = x.length();
+        if (n < minLen) throw new IllegalArgumentException("FF1 input shorter than minimum length " + minLen);
+        FpeCipher.requireNumerals(x, radix);
+        byte[] t = tweak == null ? new byte[0] : tweak;
+
+        int u = n / 2, v = n - u;
+        String a = x.substring(0, u), b = x.substring(u);
+
+        BigInteger r = BigInteger.valueOf(radix);
+        BigInteger modU = r.pow(u), modV = r.pow(v);
+        int bLen = (modV.subtract(BigInteger.ONE).bitLength() + 7) / 8;   // ceil(ceil(v·log2 radix) / 8)
+        int d = 4 * ((bLen + 3) / 4) + 4;
+
+        byte[] p = {
+                1, 2, 1,
+                (byte) (radix >>> 16), (byte) (radix >>> 8), (byte) radix,
+                10, (byte) u,
+                (byte) (n >>> 24), (byte) (n >>> 16), (byte) (n >>> 8), (byte) n,
+                (byte) (t.length >>> 24), (byte) (t.length >>> 16), (byte) (t.length >>> 8), (byte) t.length
+        };
+        int pad = Math.floorMod(-t.length - bLen - 1, 16);
+        byte[] q = new byte[t.length + pad + 1 + bLen];
+        System.arraycopy(t, 0, q, 0, t.length);
+
+        Cipher aes = aes();
+        byte[] pMac = mac(aes, new byte[16], p);   // CBC-MAC state after P; reused every round
+
+        for (int k = 0; k < ROUNDS; k++) {
+            int i = encrypt ? k : ROUNDS - 1 - k;
+            String feed = encrypt ? b : a;
+            q[t.length + pad] = (byte) i;
+            writeBigEndian(FpeCipher.num(feed, radix), q, t.length + pad + 1, bLen);
+
+            byte[] rBlock = mac(aes, pMac, q);
+            BigInteger y = new BigInteger(1, expand(aes, rBlock, d));
+
+            boolean even = (i & 1) == 0;
+            int m = even ? u : v;
+            BigInteger mod = even ? modU : modV;
+            if (encrypt) {
+                String c = FpeCipher.str(FpeCipher.num(a, radix).add(y).mod(mod), radix, m);
+                a = b;
+                b = c;
+            } else {
+                String c = FpeCipher.str(FpeCipher.num(b, radix).subtract(y).mod(mod), radix, m);
+                b = a;
+                a = c;
+            }
+        }
+        return a + b;
+    }
+
+    /** CBC-MAC continuation: chains {@code data} (a multiple of 16 bytes) from state {@code iv}. */
+    private static byte[] mac(Cipher aes, byte[] iv, byte[] data) {
+        byte[] y = iv.clone();
+        for (int off = 0; off < data.length; off += 16) {
+            for (int j = 0; j < 16; j++) y[j] ^= data[off + j];
+            y = block(aes, y);
+        }
+        return y;
+    }
+
+    /** S = R || CIPH(R ⊕ [1]^16) || CIPH(R ⊕ [2]^16) … truncated to d bytes. */
+    private static byte[] expand(Cipher aes, byte[] r, int d) {
+        byte[] s = new byte[d];
+        System.arraycopy(r, 0, s, 0, Math.min(16, d));
+        for (int j = 1; j * 16 < d; j++) {
+            byte[] x = r.clone();
+            x[15] ^= (byte) j;
+            x[14] ^= (byte) (j >>> 8);
+            byte[] e = block(aes, x);
+            System.arraycopy(e, 0, s, j * 16, Math.min(16, d - j * 16));
+        }
+        return s;
+    }
+
+    private static void writeBigEndian(BigInteger value, byte[] dst, int off, int len) {
+        byte[] raw = value.toByteArray();
+        int start = raw.length > len ? raw.length - len : 0;   // drop BigInteger sign byte
+        int copy = raw.length - start;
+        java.util.Arrays.fill(dst, off, off + len - copy, (byte) 0);
+        System.arraycopy(raw, start, dst, off + len - copy, copy);
+    }
+
+    private static byte[] block(Cipher aes, byte[] in) {
+        try {
+            return aes.doFinal(in);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Cipher aes() {
+        try {
+            Cipher c = Cipher.getInstance("AES/ECB/NoPadding");
+            c.init(Cipher.ENCRYPT_MODE, key);
+            return c;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES unavailable", e);
+        }
+    }
+}
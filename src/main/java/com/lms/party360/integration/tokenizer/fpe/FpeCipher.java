@@ -0,0 +1,39 @@
+package com.lms.party360.integration.tokenizer.fpe;
+
+import java.math.BigInteger;
+
+/**
+ * Format-preserving cipher over numeral strings (NIST SP 800-38G): output has the same length and
+ * alphabet as the input. Numerals are 0-9 then a-z, so radix is 2..36 (10 for SSN/EIN).
+ *
+ * Implementations are stateless apart from the key and safe for concurrent use.
+ */
+public interface FpeCipher {
+
+    String encrypt(String numerals, byte[] tweak);
+
+    String decrypt(String numerals, byte[] tweak);
+
+    int radix();
+
+    // ---------- Numeral string helpers shared by FF1 / FF3-1 ----------
+
+    static BigInteger num(CharSequence x, int radix) {
+        return x.isEmpty() ? BigInteger.ZERO : new BigInteger(x.toString(), radix);
+    }
+
+    /** STR^m_radix(x): x in base radix, left-padded with '0' to exactly m numerals. */
+    static String str(BigInteger x, int radix, int m) {
+        String s = x.toString(radix);
+        if (s.length() > m) throw new IllegalStateException("numeral overflow");
+        return "0".repeat(m - s.length()) + s;
+    }
+
+    static void requireNumerals(String x, int radix) {
+        for (int i = 0; i < x.length(); i++) {
+            if (Character.digit(x.charAt(i), radix) < 0) {
+                throw new IllegalArgumentException("Input contains a numeral outside radix " + radix);
+            }
+        }
+    }
+}
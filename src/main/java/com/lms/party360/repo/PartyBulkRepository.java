@@ -0,0 +1,99 @@
+package com.lms.party360.repo;
+
+import com.lms.party360.api.model.request.AddressInput;
+import com.lms.party360.api.model.request.ContactInput;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based JDBC access for bulk imports: one dedupe query and one batched INSERT per table per chunk.
+ * Pair with {@code reWriteBatchedInserts=true} on the Postgres JDBC URL so batches become multi-row INSERTs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartyBulkRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public record PersonKey(String ssnToken, LocalDate dob) {}
+
+    public record PersonRow(String partyId, String tenant, String firstName, String lastName,
+                            LocalDate dob, String ssnToken, String ssnLast4,
+                            List<AddressInput> addresses, List<ContactInput> contacts) {}
+
+    /** Existing parties for any of the given (ssnToken, dob) pairs — a single round trip. */
+    public Map<PersonKey, String> findExistingBySsnTokenAndDob(Collection<PersonKey> keys) {
+        Map<PersonKey, String> found = new HashMap<>();
+        if (keys.isEmpty()) return found;
+        String[] tokens = keys.stream().map(PersonKey::ssnToken).toArray(String[]::new);
+        Date[] dobs = keys.stream().map(k -> Date.valueOf(k.dob())).toArray(Date[]::new);
+        jdbc.query("""
+                SELECT p.party_id, p.ssn_token, p.dob
+                  FROM person_profile p
+                  JOIN unnest(?, ?) AS k(ssn_token, dob)
+                    ON p.ssn_token = k.ssn_token AND p.dob = k.dob
+                """,
+                ps -> {
+                    Array t = ps.getConnection().createArrayOf("text", tokens);
+                    Array d = ps.getConnection().createArrayOf("date", dobs);
+                    ps.setArray(1, t);
+                    ps.setArray(2, d);
+                },
+                rs -> {
+                    found.put(new PersonKey(rs.getString(2), rs.getDate(3).toLocalDate()), rs.getString(1));
+                });
+        return found;
+    }
+
+    /** Batched inserts for party, person_profile, address and contact_method (caller owns the transaction). */
+    public void insertPeople(List<PersonRow> rows, OffsetDateTime now) {
+        if (rows.isEmpty()) return;
+        Timestamp ts = Timestamp.from(now.toInstant());
+
+        List<Object[]> parties = new ArrayList<>(rows.size());
+        List<Object[]> persons = new ArrayList<>(rows.size());
+        List<Object[]> addresses = new ArrayList<>();
+        List<Object[]> contacts = new ArrayList<>();
+        for (PersonRow r : rows) {
+            parties.add(new Object[]{r.partyId(), "PERSON", "ACTIVE", "LOW", r.tenant(), ts, ts});
+            persons.add(new Object[]{r.partyId(), r.firstName(), r.lastName(), Date.valueOf(r.dob()),
+                    r.ssnToken(), r.ssnLast4()});
+            for (AddressInput a : r.addresses()) {
+                addresses.add(new Object[]{r.partyId(), a.type(), a.line1(), a.line2(), a.city(), a.state(),
+                        a.postalCode(), a.country() == null ? "US" : a.country()});
+            }
+            for (ContactInput c : r.contacts()) {
+                contacts.add(new Object[]{r.partyId(), c.type(), c.value()});
+            }
+        }
+
+        jdbc.batchUpdate("""
+                INSERT INTO party (party_id, type, status, risk_level, tenant, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)""", parties);
+        jdbc.batchUpdate("""
+                INSERT INTO person_profile (party_id, first_name, last_name, dob, ssn_token, ssn_last4)
+                VALUES (?, ?, ?, ?, ?, ?)""", persons);
+        if (!addresses.isEmpty()) {
+            jdbc.batchUpdate("""
+                    INSERT INTO address (party_id, type, line1, line2, city, state, postal_code, country)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)""", addresses);
+        }
+        if (!contacts.isEmpty()) {
+            jdbc.batchUpdate("""
+                    INSERT INTO contact_method (party_id, type, value)
+                    VALUES (?, ?, ?)""", contacts);
+        }
+    }
+}
@@ -1,5 +1,41 @@
 package com.lms.party360.util;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HTTP header names used by the API, and the immutable event-header bag that travels with outbox events
+ * (tenant, correlationId, actorId…) into Kafka record headers.
+ */
 public class Headers {
     public static final String IDEMPOTENCY_KEY = "";
+
+    private final Map<String, String> values;
+
+    private Headers(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    /** {@code Headers.of("tenant", t, "correlationId", c)}; null values are dropped. */
+    public static Headers of(String... keyValues) {
+        if (keyValues.length % 2 != 0) throw new IllegalArgumentException("Headers.of expects key/value pairs");
+        Map<String, String> m = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (keyValues[i + 1] != null) m.put(keyValues[i], keyValues[i + 1]);
+        }
+        return new Headers(m);
+    }
+
+    public static Headers of(Map<String, String> values) {
+        return new Headers(new LinkedHashMap<>(values));
+    }
+
+    public String get(String name) {
+        return values.get(name);
+    }
+
+    public Map<String, String> asMap() {
+        return values;
+    }
 }
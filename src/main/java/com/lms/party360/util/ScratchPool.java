@@ -0,0 +1,48 @@
+package com.lms.party360.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded pool of reusable scratch objects (digests, encode buffers) for short, CPU-bound sections.
+ *
+ * A ThreadLocal cache gives nothing on virtual threads (a new thread per request means a new object per
+ * call). Such sections never block while holding the object, so at most about one per carrier is in use at a
+ * time and a few per core cover every thread kind: {@link #borrow} takes a free one or creates one,
+ * {@link #release} keeps it unless the pool is already full. ArrayBlockingQueue locks with a
+ * ReentrantLock, so virtual threads do not pin on it.
+ */
+public final class ScratchPool<T> {
+
+    private final ArrayBlockingQueue<T> free;
+    private final Supplier<T> factory;
+    private final AtomicInteger created = new AtomicInteger();
+
+    public ScratchPool(int capacity, Supplier<T> factory) {
+        this.free = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.factory = factory;
+    }
+
+    /** Two per core: enough for every carrier plus platform threads hashing alongside them. */
+    public static <T> ScratchPool<T> perCore(Supplier<T> factory) {
+        return new ScratchPool<>(2 * Runtime.getRuntime().availableProcessors(), factory);
+    }
+
+    public T borrow() {
+        T t = free.poll();
+        if (t != null) return t;
+        created.incrementAndGet();
+        return factory.get();
+    }
+
+    /** The caller must not touch {@code t} afterwards. */
+    public void release(T t) {
+        free.offer(t);
+    }
+
+    /** Objects created so far; stays near the pool size when reuse works. */
+    public int created() {
+        return created.get();
+    }
+}
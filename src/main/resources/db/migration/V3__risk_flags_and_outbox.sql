@@ -0,0 +1,19 @@
+-- Transactional outbox: rows are staged in the same transaction as the aggregate change and relayed to
+-- Kafka by OutboxPublisher. Pending rows are those with published_at IS NULL (DELETE cleanup removes them
+-- instead).
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id            BIGSERIAL    PRIMARY KEY,
+    aggregate_id  TEXT         NOT NULL,
+    msg_key       TEXT         NOT NULL,              -- Kafka record key (aggregateId unless enqueueWithKey)
+    event_type    TEXT         NOT NULL,              -- e.g. party.v1.PartyCreated
+    content_type  TEXT         NOT NULL DEFAULT 'application/json',
+    payload       BYTEA        NOT NULL,
+    headers       JSONB        NOT NULL DEFAULT '{}'::jsonb,
+    created_at    TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    published_at  TIMESTAMPTZ
+);
+
+-- Relay claim path: ORDER BY id over pending rows only.
+CREATE INDEX IF NOT EXISTS outbox_event_pending_idx
+    ON outbox_event (id)
+    WHERE published_at IS NULL;
@@ -0,0 +1,8 @@
+-- Log-tailing outbox relay (outbox.relay-mode=CDC): last LSN whose outbox inserts were all acked by Kafka,
+-- per replication slot. The relay restarts streaming from here; the slot itself and the publication are
+-- created by OutboxCdcRelay on first start.
+CREATE TABLE IF NOT EXISTS outbox_cdc_checkpoint (
+    slot_name   TEXT         PRIMARY KEY,
+    lsn         PG_LSN       NOT NULL,
+    updated_at  TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
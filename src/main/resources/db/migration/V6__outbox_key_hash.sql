@@ -0,0 +1,5 @@
+-- Partition-aware sharding for the polling relay: key_hash is Kafka's default-partitioner hash of msg_key
+-- (positive murmur2), written by OutboxWriterJdbc. Lane of a row = (key_hash % partitions) % lanes, so each
+-- lane owns whole Kafka partitions and per-key order is kept. Rows staged before this migration are all
+-- relayed by lane 0; drain the outbox before upgrading if per-key order must hold across the upgrade.
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS key_hash INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,41 @@
+-- Time-range partitioning of outbox_event (by created_at). Future partitions are created and expired ones
+-- dropped by OutboxPartitionMaintainer (outbox.partitioning.*), so relay scans and autovacuum only ever see
+-- a bounded window of rows instead of the whole history.
+--
+-- The existing table becomes the first partition (MINVALUE .. tomorrow 00:00 UTC) and is dropped by
+-- retention like any other once all its rows are published. The id sequence is carried over. A DEFAULT
+-- partition catches rows outside any maintained range; the maintainer purges published rows from it.
+-- The primary key has to include the partition key: (id, created_at). The legacy table's key on (id) is
+-- replaced by one on (id, created_at) before the ATTACH, so it becomes that partition's part of the parent key.
+
+ALTER TABLE outbox_event RENAME TO outbox_event_legacy;
+ALTER TABLE outbox_event_legacy DROP CONSTRAINT outbox_event_pkey;
+ALTER TABLE outbox_event_legacy ADD CONSTRAINT outbox_event_legacy_pkey PRIMARY KEY (id, created_at);
+ALTER INDEX outbox_event_pending_idx RENAME TO outbox_event_legacy_pending_idx;
+ALTER SEQUENCE outbox_event_id_seq OWNED BY NONE;
+
+CREATE TABLE outbox_event (
+    id            BIGINT       NOT NULL DEFAULT nextval('outbox_event_id_seq'),
+    aggregate_id  TEXT         NOT NULL,
+    msg_key       TEXT         NOT NULL,
+    event_type    TEXT         NOT NULL,
+    content_type  TEXT         NOT NULL DEFAULT 'application/json',
+    payload       BYTEA        NOT NULL,
+    headers       JSONB        NOT NULL DEFAULT '{}'::jsonb,
+    created_at    TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    published_at  TIMESTAMPTZ,
+    key_hash      INTEGER      NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE outbox_event_id_seq OWNED BY outbox_event.id;
+
+-- Relay claim path, created on every partition: ORDER BY id over pending rows only.
+CREATE INDEX outbox_event_pending_idx
+    ON outbox_event (id)
+    WHERE published_at IS NULL;
+
+ALTER TABLE outbox_event ATTACH PARTITION outbox_event_legacy
+    FOR VALUES FROM (MINVALUE) TO ((date_trunc('day', now() AT TIME ZONE 'UTC') + INTERVAL '1 day') AT TIME ZONE 'UTC');
+
+CREATE TABLE outbox_event_default PARTITION OF outbox_event DEFAULT;
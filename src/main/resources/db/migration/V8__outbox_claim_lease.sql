@@ -0,0 +1,6 @@
+-- Polling relay leases (OutboxPublisher): a lane's claimed rows carry claimed_until while their Kafka sends are
+-- in flight outside any transaction. A live lease keeps other pods off the lane, so per-key order holds without
+-- keeping a transaction, row locks or a connection open during the ack wait. Expired leases (dead pod) are
+-- simply claimed again.
+
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
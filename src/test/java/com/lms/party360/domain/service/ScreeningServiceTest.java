@@ -0,0 +1,77 @@
+package com.lms.party360.domain.service;
+
+import com.lms.party360.integration.ofac.OfacClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Create-time OFAC routing: a clear name skips the vendor, a local hit or a missing local engine goes to it.
+ * No Spring context.
+ */
+class ScreeningServiceTest {
+
+	@TempDir
+	static Path dir;
+
+	private static OfacClient client;
+
+	@BeforeAll
+	static void load() throws Exception {
+		Files.writeString(dir.resolve("sdn.csv"), String.join("\r\n",
+				"2674,\"HUSSEIN, Saddam\",\"individual\",\"IRAQ2\",-0-,-0-,-0-,-0-,-0-,-0-,-0-,"
+						+ "\"DOB 28 Apr 1937; POB al-Awja, near Tikrit, Iraq; nationality Iraq.\"",
+				"\u001a"));
+		client = new OfacClient(dir, Duration.ofMillis(100), 0.85, 5, new SimpleMeterRegistry());
+	}
+
+	@AfterAll
+	static void close() throws Exception {
+		client.close();
+	}
+
+	@Test
+	void clearNameSkipsVendor() {
+		ScreeningService.OfacScreening r = local().screenOfac("John Smith", LocalDate.of(1980, 1, 1), "US");
+		assertEquals(ScreeningService.Outcome.CLEAR, r.outcome());
+		assertFalse(r.needsVendor());
+	}
+
+	@Test
+	void localHitGoesToVendor() {
+		ScreeningService.OfacScreening r = local().screenOfac("Sadam Husein", null, "Iraq");
+		assertEquals(ScreeningService.Outcome.POTENTIAL_MATCH, r.outcome());
+		assertEquals("SDN-2674", r.hits().get(0).entry().uid());
+		assertTrue(r.needsVendor());
+	}
+
+	@Test
+	void noLocalEngineGoesToVendor() {
+		SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+		ScreeningService service = new ScreeningService(
+				new StaticListableBeanFactory().getBeanProvider(OfacClient.class), metrics);
+		ScreeningService.OfacScreening r = service.screenOfac("John Smith", null, null);
+		assertEquals(ScreeningService.Outcome.VENDOR_REQUIRED, r.outcome());
+		assertTrue(r.needsVendor());
+		assertEquals(1.0, metrics.counter("screening.ofac.local", "outcome", "VENDOR_REQUIRED").count());
+	}
+
+	private static ScreeningService local() {
+		return new ScreeningService(
+				new StaticListableBeanFactory(Map.of("ofacClient", client)).getBeanProvider(OfacClient.class),
+				new SimpleMeterRegistry());
+	}
+}
@@ -0,0 +1,81 @@
+package com.lms.party360.events.publisher;
+
+import com.lms.party360.config.EventProperties;
+import com.lms.party360.events.avro.PartyCreated;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Avro path of EventPayloadFactory against the in-process LocalSchemaRegistry: round trip, cached schema id,
+ * and process-independent ids. No Spring context, no Kafka.
+ */
+class EventPayloadFactoryTest {
+
+	private static final OffsetDateTime AT = OffsetDateTime.of(2026, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+
+	private final EventPayloadFactory avro =
+			new EventPayloadFactory(new EventProperties(EventProperties.PayloadFormat.AVRO), new LocalSchemaRegistry());
+
+	@Test
+	void partyCreatedRoundTripsThroughAvro() {
+		EncodedPayload p = assertInstanceOf(EncodedPayload.class,
+				avro.partyCreated("P-1", "PERSON", "LOW", AT, null));
+		assertEquals(EventPayloadFactory.CONTENT_TYPE_AVRO, p.contentType());
+
+		PartyCreated back = avro.decode(p.bytes(), p.headers().get(EventPayloadFactory.H_SCHEMA_ID), PartyCreated.class);
+		assertEquals("P-1", back.getPartyId());
+		assertEquals("PERSON", back.getPartyType());
+		assertEquals("LOW", back.getRiskLevel());
+		assertEquals(AT.toInstant().toEpochMilli(), back.getOccurredAt());
+		assertNull(back.getCorrelationId());
+	}
+
+	@Test
+	void schemaIdIsCachedAndStableAcrossRegistries() {
+		EncodedPayload a = (EncodedPayload) avro.partyCreated("P-1", "PERSON", "LOW", AT, "c-1");
+		EncodedPayload b = (EncodedPayload) avro.partyCreated("P-2", "PERSON", "HIGH", AT, "c-2");
+		assertSame(a.headers(), b.headers());
+
+		int other = new LocalSchemaRegistry().register("party.v1.PartyCreated", PartyCreated.SCHEMA$);
+		assertEquals(Integer.toString(other), a.headers().get(EventPayloadFactory.H_SCHEMA_ID));
+	}
+
+	@Test
+	void virtualThreadsEncodeWithPooledBuffers() throws Exception {
+		try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<EncodedPayload>> payloads = new ArrayList<>();
+			for (int i = 0; i < 2_000; i++) {
+				String id = "P-" + i;
+				payloads.add(virtual.submit(() -> (EncodedPayload) avro.partyCreated(id, "PERSON", "LOW", AT, null)));
+			}
+			for (int i = 0; i < payloads.size(); i++) {
+				EncodedPayload p = payloads.get(i).get();
+				PartyCreated back = avro.decode(p.bytes(), p.headers().get(EventPayloadFactory.H_SCHEMA_ID),
+						PartyCreated.class);
+				assertEquals("P-" + i, back.getPartyId());
+			}
+		}
+		assertTrue(avro.buffers.created() <= 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	@Test
+	void jsonFormatKeepsPlainMapPayload() {
+		EventPayloadFactory json = new EventPayloadFactory(EventProperties.defaults(), new LocalSchemaRegistry());
+		Map<?, ?> m = assertInstanceOf(Map.class, json.partyCreated("P-1", "PERSON", "LOW", AT, "c-1"));
+		assertEquals("P-1", m.get("partyId"));
+	}
+}
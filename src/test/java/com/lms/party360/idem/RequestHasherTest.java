@@ -0,0 +1,60 @@
+package com.lms.party360.idem;
+
+import com.lms.party360.api.model.request.AddressInput;
+import com.lms.party360.api.model.request.ContactInput;
+import com.lms.party360.api.model.request.CreatePersonRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Canonical request hashing: stable across platform and virtual threads, sensitive to field boundaries, and
+ * served from the bounded state pool on virtual threads instead of a fresh digest per call. No Spring context.
+ */
+class RequestHasherTest {
+
+	private static CreatePersonRequest request(String firstName) {
+		return new CreatePersonRequest(firstName, "Doe", "1980-01-01", "123-45-6789", "consent-1", true, "t1",
+				List.of(new AddressInput("MAILING", "1 Main St", null, "Springfield", "IL", "62701", "US")),
+				List.of(new ContactInput("EMAIL", "jane@example.com")));
+	}
+
+	@Test
+	void sameHashOnPlatformAndVirtualThreads() throws Exception {
+		byte[] platform = RequestHasher.sha256(request("Jane"));
+		try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<byte[]>> hashes = new ArrayList<>();
+			for (int i = 0; i < 200; i++) hashes.add(virtual.submit(() -> RequestHasher.sha256(request("Jane"))));
+			for (Future<byte[]> h : hashes) assertArrayEquals(platform, h.get());
+		}
+	}
+
+	@Test
+	void fieldBoundariesAndNullsChangeTheHash() {
+		byte[] base = RequestHasher.sha256(request("Jane"));
+		assertFalse(Arrays.equals(base, RequestHasher.sha256(request("Jan"))));
+		assertFalse(Arrays.equals(RequestHasher.sha256(request("")), RequestHasher.sha256(request(null))));
+	}
+
+	@Test
+	void virtualThreadsReusePooledState() throws Exception {
+		int before = RequestHasher.STATE.created();
+		try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<byte[]>> hashes = new ArrayList<>();
+			for (int i = 0; i < 5_000; i++) hashes.add(virtual.submit(() -> RequestHasher.sha256(request("Jane"))));
+			for (Future<byte[]> h : hashes) h.get();
+		}
+		int created = RequestHasher.STATE.created() - before;
+		assertTrue(created <= 2 * Runtime.getRuntime().availableProcessors(),
+				"5000 virtual-thread hashes created " + created + " digest states");
+	}
+}
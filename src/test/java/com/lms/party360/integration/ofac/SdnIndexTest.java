@@ -0,0 +1,88 @@
+package com.lms.party360.integration.ofac;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * OfacMapper + SdnIndex over a three-entry SDN sample in the legacy CSV layout: remark parsing, spelling
+ * variants, token order and the DOB adjustment. No Spring context.
+ */
+class SdnIndexTest {
+
+	private static final double THRESHOLD = 0.85;
+
+	@TempDir
+	static Path dir;
+
+	private static List<SdnEntry> entries;
+	private static SdnIndex index;
+
+	@BeforeAll
+	static void load() throws Exception {
+		Files.writeString(dir.resolve("sdn.csv"), String.join("\r\n",
+				"36,\"AEROCARIBBEAN AIRLINES\",-0-,\"CUBA\",-0-,-0-,-0-,-0-,-0-,-0-,-0-,-0-",
+				"2674,\"HUSSEIN, Saddam\",\"individual\",\"IRAQ2\",-0-,-0-,-0-,-0-,-0-,-0-,-0-,"
+						+ "\"DOB 28 Apr 1937; POB al-Awja, near Tikrit, Iraq; nationality Iraq.\"",
+				"7000,\"MUHAMMAD, Ali Hassan\",\"individual\",\"SDGT\",-0-,-0-,-0-,-0-,-0-,-0-,-0-,"
+						+ "\"DOB circa 1970; citizen Yemen.\"",
+				"\u001a"));
+		Files.writeString(dir.resolve("alt.csv"), "2674,1000,\"aka\",\"AL-TIKRITI, Saddam Hussein\",-0-\r\n"
+				+ "36,1001,\"aka\",\"AERO-CARIBBEAN\",-0-\r\n");
+		Files.writeString(dir.resolve("add.csv"), "36,25,-0-,\"Havana\",\"Cuba\",-0-\r\n");
+		entries = OfacMapper.load(dir);
+		index = SdnIndex.build(entries, "test");
+	}
+
+	@Test
+	void mapsNamesAndRemarks() {
+		assertEquals(3, entries.size());
+		SdnEntry saddam = entries.stream().filter(e -> e.uid().equals("SDN-2674")).findFirst().orElseThrow();
+		assertEquals("HUSSEIN, Saddam", saddam.primaryName());
+		assertEquals(2, saddam.names().size());
+		assertTrue(saddam.birthDates().contains(LocalDate.of(1937, 4, 28)));
+		assertTrue(saddam.countries().contains("IQ"));
+		SdnEntry airline = entries.stream().filter(e -> e.uid().equals("SDN-36")).findFirst().orElseThrow();
+		assertTrue(airline.countries().contains("CU"));
+	}
+
+	@Test
+	void matchesSpellingVariantsAndTokenOrder() {
+		assertEquals("SDN-2674", best("Sadam Husein", null, "IQ"));
+		assertEquals("SDN-2674", best("Saddam Hussein", LocalDate.of(1937, 4, 28), null));
+		assertEquals("SDN-7000", best("Mohammed Ali Hasan", LocalDate.of(1970, 5, 1), "YE"));
+		assertEquals("SDN-36", best("Aero Caribbean Airlines", null, "CU"));
+	}
+
+	@Test
+	void unrelatedNameIsClear() {
+		assertTrue(index.search(new SdnIndex.Query("John Smith", null, null), THRESHOLD, 5).isEmpty());
+	}
+
+	@Test
+	void dobOnlyRaisesScore() {
+		SdnIndex.Hit exact = hit("Sadam Husein", LocalDate.of(1937, 4, 28));
+		SdnIndex.Hit none = hit("Sadam Husein", null);
+		SdnIndex.Hit far = hit("Sadam Husein", LocalDate.of(1980, 1, 1));
+		assertTrue(exact.score() > none.score());
+		assertEquals(none.score(), far.score());
+		assertEquals("SDN-2674", best("Saddam Hussein", LocalDate.of(1980, 1, 1), null));
+	}
+
+	private static String best(String name, LocalDate dob, String country) {
+		List<SdnIndex.Hit> hits = index.search(new SdnIndex.Query(name, dob, country), THRESHOLD, 5);
+		return hits.isEmpty() ? null : hits.get(0).entry().uid();
+	}
+
+	private static SdnIndex.Hit hit(String name, LocalDate dob) {
+		return index.search(new SdnIndex.Query(name, dob, null), 0.0, 5).get(0);
+	}
+}
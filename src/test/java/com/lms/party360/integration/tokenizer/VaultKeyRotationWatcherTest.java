@@ -0,0 +1,65 @@
+package com.lms.party360.integration.tokenizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Key version changes seen by VaultKeyRotationWatcher reach TokenCache.onKeysRotated and drop the cached
+ * tokens of that transformation only. Versions come from a stub instead of Vault; no Spring context.
+ */
+class VaultKeyRotationWatcherTest {
+
+	private final TokenCache cache = new TokenCache(true, 100, Duration.ofHours(1), null);
+	private final AtomicReference<Object> ssnVersion = new AtomicReference<>(1L);
+	private final List<Object> published = new ArrayList<>();
+
+	private final VaultKeyRotationWatcher watcher = new VaultKeyRotationWatcher(
+			Map.of("ssn", "/v1/transit/keys/party-ssn", "ein", "/v1/transit/keys/party-ein"),
+			path -> {
+				if (path.endsWith("party-ein")) return 7L;
+				Object v = ssnVersion.get();
+				if (v instanceof RuntimeException e) throw e;
+				return (Long) v;
+			},
+			event -> {
+				published.add(event);
+				cache.onKeysRotated((TokenCache.KeysRotated) event);
+			},
+			Duration.ofMinutes(1));
+
+	@Test
+	void rotationInvalidatesOnlyThatTransformation() {
+		cache.put("t1", "ssn", "123456789", "tok-ssn");
+		cache.put("t1", "ein", "987654321", "tok-ein");
+
+		watcher.poll();                       // baseline
+		assertEquals(List.of(), published);
+		assertEquals("tok-ssn", cache.get("t1", "ssn", "123456789"));
+
+		ssnVersion.set(2L);
+		watcher.poll();
+		assertEquals(List.of(new TokenCache.KeysRotated("ssn")), published);
+		assertNull(cache.get("t1", "ssn", "123456789"));
+		assertEquals("tok-ein", cache.get("t1", "ein", "987654321"));
+	}
+
+	@Test
+	void failedPollKeepsLastKnownVersion() {
+		watcher.poll();
+		ssnVersion.set(new IllegalStateException("vault down"));
+		watcher.poll();
+		assertEquals(List.of(), published);
+
+		ssnVersion.set(1L);                   // back, unchanged: no rotation
+		watcher.poll();
+		assertEquals(List.of(), published);
+	}
+}
@@ -0,0 +1,51 @@
+package com.lms.party360.integration.tokenizer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Only transient Vault failures are retried and counted by the breaker; a 4xx fails on the first attempt and
+ * leaves the breaker's failure count untouched. Registries are plain Resilience4j ones; no Spring context.
+ */
+class VaultResilienceTest {
+
+	private final CircuitBreakerRegistry breakers = CircuitBreakerRegistry.ofDefaults();
+	private final VaultResilience resilience = new VaultResilience(breakers,
+			RetryRegistry.of(RetryConfig.custom().maxAttempts(3).waitDuration(Duration.ofMillis(10)).build()),
+			Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+	@Test
+	void badRequestIsNeitherRetriedNorRecorded() {
+		AtomicInteger attempts = new AtomicInteger();
+		Mono<String> call = Mono.defer(() -> {
+			attempts.incrementAndGet();
+			return Mono.error(WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, new byte[0], null));
+		});
+		assertThrows(WebClientResponseException.class, () -> resilience.decorate(call).block());
+		assertEquals(1, attempts.get());
+		assertEquals(0, breakers.circuitBreaker(VaultResilience.INSTANCE).getMetrics().getNumberOfFailedCalls());
+	}
+
+	@Test
+	void serverErrorIsRetriedAndRecorded() {
+		AtomicInteger attempts = new AtomicInteger();
+		Mono<String> call = Mono.defer(() -> {
+			attempts.incrementAndGet();
+			return Mono.error(WebClientResponseException.create(503, "Unavailable", HttpHeaders.EMPTY, new byte[0], null));
+		});
+		assertThrows(WebClientResponseException.class, () -> resilience.decorate(call).block());
+		assertEquals(3, attempts.get());
+		assertEquals(3, breakers.circuitBreaker(VaultResilience.INSTANCE).getMetrics().getNumberOfFailedCalls());
+	}
+}
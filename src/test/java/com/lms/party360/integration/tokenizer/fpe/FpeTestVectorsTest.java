@@ -0,0 +1,119 @@
+package com.lms.party360.integration.tokenizer.fpe;
+
+import com.lms.party360.integration.tokenizer.LocalFpeTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Offline known-answer tests: NIST SP 800-38G sample vectors for FF1 and the FF3 core of FF3-1,
+ * plus stability / versioning checks for the LOCAL tokenizer. No Spring context, no Vault.
+ */
+class FpeTestVectorsTest {
+
+	private static final String K128 = "2B7E151628AED2A6ABF7158809CF4F3C";
+	private static final String K256 = K128 + "EF4359D8D580AA4F7F036D6F04FC6A94";
+	private static final String FF3_K128 = "EF4359D8D580AA4F7F036D6F04FC6A94";
+
+	@ParameterizedTest(name = "FF1 sample {index}")
+	@CsvSource({
+			// key, radix, tweak, plaintext, ciphertext
+			K128 + ", 10, ,                       0123456789,          2433477484",
+			K128 + ", 10, 39383736353433323130,   0123456789,          6124200773",
+			K128 + ", 36, 3737373770717273373737, 0123456789abcdefghi, a9tv40mll9kdu509eum",
+			K256 + ", 10, ,                       0123456789,          6657667009",
+			K256 + ", 10, 39383736353433323130,   0123456789,          1001623463",
+	})
+	void ff1MatchesNistSamples(String key, int radix, String tweak, String pt, String ct) {
+		FF1 ff1 = new FF1(hex(key), radix);
+		assertEquals(ct, ff1.encrypt(pt, hex(tweak)));
+		assertEquals(pt, ff1.decrypt(ct, hex(tweak)));
+	}
+
+	@ParameterizedTest(name = "FF3 sample {index}")
+	@CsvSource({
+			FF3_K128 + ", D8E7920AFA330A73, 890121234567890000,            750918814058654607",
+			FF3_K128 + ", 9A768A92F60E12D8, 890121234567890000,            018989839189395384",
+			FF3_K128 + ", D8E7920AFA330A73, 89012123456789000000789000000, 48598367162252569629397416226",
+			FF3_K128 + ", 0000000000000000, 89012123456789000000789000000, 34695224821734535122613701434",
+	})
+	void ff3CoreMatchesNistSamples(String key, String tweak64, String pt, String ct) {
+		FF3_1 ff3 = new FF3_1(hex(key), 10);
+		assertEquals(ct, ff3.ff3(pt, hex(tweak64), true));
+		assertEquals(pt, ff3.ff3(ct, hex(tweak64), false));
+	}
+
+	@Test
+	void ff3_1SplitsThe56BitTweakPerRevision1() {
+		byte[] expanded = FF3_1.expandTweak(hex("D8E7920AFA330A"));
+		assertEquals("D8E79200FA330AA0", HexFormat.of().withUpperCase().formatHex(expanded));
+	}
+
+	@Test
+	void ff3_1RoundTripsSsnsAndPreservesFormat() {
+		FF3_1 cipher = new FF3_1(hex(K256), 10);
+		byte[] tweak = hex("00112233445566");
+		for (String ssn : new String[] { "000000000", "123456789", "999999999", "078051120" }) {
+			String ct = cipher.encrypt(ssn, tweak);
+			assertEquals(9, ct.length());
+			assertTrue(ct.chars().allMatch(Character::isDigit));
+			assertEquals(ssn, cipher.decrypt(ct, tweak));
+		}
+	}
+
+	@Test
+	void rejectsDomainsBelowNistMinimum() {
+		assertThrows(IllegalArgumentException.class, () -> new FF1(hex(K128), 10).encrypt("12345", new byte[0]));
+		assertThrows(IllegalArgumentException.class, () -> new FF3_1(hex(K128), 10).encrypt("12345", new byte[7]));
+	}
+
+	@Test
+	void localTokensAreStableVersionedAndTenantScoped() {
+		Map<Integer, byte[]> keys = Map.of(1, hex(K256), 2, hex(K128 + K128));
+		LocalFpeTokenizer v1 = new LocalFpeTokenizer(LocalFpeTokenizer.Algorithm.FF1, keys, 1);
+		LocalFpeTokenizer v2 = new LocalFpeTokenizer(LocalFpeTokenizer.Algorithm.FF1, keys, 2);
+
+		String t1 = v1.tokenize("123456789", "acme", "ssn");
+		assertEquals(t1, v1.tokenize("123456789", "acme", "ssn"));
+		assertTrue(t1.startsWith("fpe:v1:"));
+		assertNotEquals(t1, v1.tokenize("123456789", "globex", "ssn"));
+
+		String t2 = v2.tokenize("123456789", "acme", "ssn");
+		assertTrue(t2.startsWith("fpe:v2:"));
+		// after rotation, tokens minted under v1 still resolve
+		assertEquals("123456789", v2.detokenize(t1, "acme", "ssn"));
+		assertEquals("123456789", v2.detokenize(t2, "acme", "ssn"));
+	}
+
+	@Test
+	void dedupeFindsRowsTokenizedBeforeRotation() {
+		Map<Integer, byte[]> keys = Map.of(1, hex(K256), 2, hex(K128 + K128));
+		LocalFpeTokenizer v1 = new LocalFpeTokenizer(LocalFpeTokenizer.Algorithm.FF1, keys, 1);
+		LocalFpeTokenizer v2 = new LocalFpeTokenizer(LocalFpeTokenizer.Algorithm.FF1, keys, 2);
+		Set<String> stored = Set.of(v1.tokenize("123456789", "acme", "ssn"));   // created while v1 was active
+
+		String current = v2.tokenize("123456789", "acme", "ssn");
+		assertFalse(stored.contains(current));
+		List<String> previous = v2.previousTokens("123456789", "acme", "ssn");
+		assertEquals(List.of(v1.tokenize("123456789", "acme", "ssn")), previous);
+		assertTrue(previous.stream().anyMatch(stored::contains));
+
+		assertEquals(List.of(), new LocalFpeTokenizer(LocalFpeTokenizer.Algorithm.FF1, Map.of(1, hex(K256)), 1)
+				.previousTokens("123456789", "acme", "ssn"));
+	}
+
+	private static byte[] hex(String s) {
+		return s == null ? new byte[0] : HexFormat.of().parseHex(s);
+	}
+}